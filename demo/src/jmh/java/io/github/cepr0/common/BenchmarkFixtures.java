@@ -0,0 +1,161 @@
+package io.github.cepr0.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cepr0.common.error.ApiErrorProperties;
+import io.github.cepr0.common.error.ApiExceptionFactory;
+import io.github.cepr0.common.error.ApiExceptionHandler;
+import io.github.cepr0.common.error.ErrorLogger;
+import io.github.cepr0.common.error.ErrorMetrics;
+import io.github.cepr0.common.error.ErrorResponseCache;
+import io.github.cepr0.common.error.ErrorResponseRenderer;
+import io.github.cepr0.common.error.ExceptionHandlerRegistry;
+import io.github.cepr0.common.error.ExceptionsHandler;
+import io.github.cepr0.common.error.RecentErrors;
+import io.github.cepr0.common.message.MessageNearCache;
+import io.github.cepr0.common.message.MessageProvider;
+import io.github.cepr0.demo.BatchProperties;
+import io.github.cepr0.demo.BatchValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Locale;
+
+/**
+ * Builds the error handling components the same way as the application does, but without the Spring context,
+ * so the benchmarks run offline and measure only the error handling path.
+ */
+public final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	public static MessageProvider messageProvider() {
+		return messageProvider(null);
+	}
+
+	public static MessageProvider messageProvider(@Nullable final MessageNearCache nearCache) {
+		var commonMessages = new ResourceBundleMessageSource();
+		commonMessages.setBasename("common-messages");
+		commonMessages.setDefaultEncoding("UTF-8");
+
+		var messages = new ResourceBundleMessageSource();
+		messages.setBasename("messages");
+		messages.setDefaultEncoding("UTF-8");
+		messages.setParentMessageSource(commonMessages);
+
+		return new MessageProvider(messages, nearCache);
+	}
+
+	/**
+	 * @return the object mapper configured as in 'application.yml'
+	 */
+	public static ObjectMapper objectMapper() {
+		return Jackson2ObjectMapperBuilder.json()
+				.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+				.build();
+	}
+
+	public static ApiErrorProperties properties() {
+		return new ApiErrorProperties();
+	}
+
+	public static ApiExceptionFactory apiExceptionFactory(final MessageProvider mp) {
+		return new ApiExceptionFactory(mp, properties());
+	}
+
+	public static ErrorResponseCache errorResponseCache(final MessageProvider mp, final ObjectMapper objectMapper) {
+		return new ErrorResponseCache(mp, objectMapper, properties());
+	}
+
+	public static ErrorResponseRenderer errorResponseRenderer(final ObjectMapper objectMapper) {
+		return new ErrorResponseRenderer(objectMapper, properties());
+	}
+
+	public static ErrorMetrics errorMetrics(final MessageProvider mp) {
+		return new ErrorMetrics(new SimpleMeterRegistry(), mp);
+	}
+
+	public static ErrorLogger errorLogger() {
+		return new ErrorLogger(properties());
+	}
+
+	/**
+	 * @return the handler with all its dependencies, call {@link #freeze(ExceptionHandlerRegistry)} after handlers are added
+	 */
+	public static ExceptionsHandler exceptionsHandler(final MessageProvider mp, final ExceptionHandlerRegistry registry) {
+		var objectMapper = objectMapper();
+		return new ExceptionsHandler(
+				mp,
+				errorResponseCache(mp, objectMapper),
+				registry,
+				errorResponseRenderer(objectMapper),
+				errorMetrics(mp),
+				errorLogger(),
+				new RecentErrors(properties().getRecent())
+		);
+	}
+
+	public static LocalValidatorFactoryBean validator() {
+		var validator = new LocalValidatorFactoryBean();
+		validator.afterPropertiesSet();
+		return validator;
+	}
+
+	public static BatchValidator batchValidator(final ObjectMapper objectMapper, final int parallelism) {
+		var props = new BatchProperties();
+		props.setParallelism(parallelism);
+		return new BatchValidator(objectMapper, validator(), props);
+	}
+
+	/**
+	 * @return the registry without handler beans, call {@link #freeze(ExceptionHandlerRegistry)} after handlers are added
+	 */
+	public static ExceptionHandlerRegistry exceptionHandlerRegistry() {
+		var beanFactory = new DefaultListableBeanFactory();
+		return new ExceptionHandlerRegistry(beanFactory.getBeanProvider(ResolvableType.forClass(ApiExceptionHandler.class)));
+	}
+
+	public static void freeze(final ExceptionHandlerRegistry registry) {
+		registry.onApplicationEvent(new ContextRefreshedEvent(new GenericApplicationContext()));
+	}
+
+	/**
+	 * Binds the request and the locale to the current thread, as it's done for a request thread
+	 */
+	public static ServletWebRequest bindRequest(final String method, final String path, final Locale locale) {
+		var request = new MockHttpServletRequest(method, path);
+		request.addPreferredLocale(locale);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		LocaleContextHolder.setLocale(locale);
+		return new ServletWebRequest(request);
+	}
+
+	public static void unbindRequest() {
+		RequestContextHolder.resetRequestAttributes();
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+	/**
+	 * Turns the logging off, so the benchmarks don't measure the console output
+	 */
+	public static void muteLogging() {
+		((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+	}
+}
@@ -0,0 +1,68 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of the {@link ApiErrorMessage} with N sub-errors and its serialization:
+ * reflective by Jackson and streaming by {@link ApiErrorMessageWriter} within the default payload budget.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ApiErrorMessageBenchmark {
+
+	@Param({"0", "10", "1000", "10000"})
+	private int errors;
+
+	private ObjectMapper objectMapper;
+	private ErrorResponseRenderer renderer;
+	private ApiErrorMessage errorMessage;
+
+	@Setup
+	public void setup() {
+		objectMapper = BenchmarkFixtures.objectMapper();
+		renderer = BenchmarkFixtures.errorResponseRenderer(objectMapper);
+		errorMessage = build();
+	}
+
+	@Benchmark
+	public ApiErrorMessage build() {
+		var result = ApiErrorMessage.builder()
+				.httpStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+				.message("Validation failed")
+				.path("/demo")
+				.build();
+		for (int i = 0; i < errors; i++) {
+			result.addError(ApiErrorMessage.Error.of("The text value must not be empty!", "model", "[" + i + "].text", ""));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return objectMapper.writeValueAsBytes(errorMessage);
+	}
+
+	@Benchmark
+	public byte[] buildAndSerialize() throws Exception {
+		return objectMapper.writeValueAsBytes(build());
+	}
+
+	@Benchmark
+	public byte[] write() {
+		return renderer.render(errorMessage);
+	}
+
+	@Benchmark
+	public byte[] buildAndWrite() {
+		return renderer.render(build());
+	}
+}
@@ -0,0 +1,93 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.common.message.CommonErrorCode;
+import io.github.cepr0.common.message.MessageProvider;
+import io.github.cepr0.demo.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the {@link ApiException} creation: eager message resolution with the stack trace (the original behavior)
+ * against the lazy one with and without the stack trace. The 'thrown' benchmarks also resolve the localized message,
+ * as the exception handler does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ApiExceptionFactoryBenchmark {
+
+	private static final String CODE = "model.forbidden-id";
+
+	@Param({"0", "32"})
+	private int stackDepth;
+
+	private MessageProvider mp;
+	private ApiExceptionFactory apiError;
+
+	@Setup
+	public void setup() {
+		mp = BenchmarkFixtures.messageProvider();
+		apiError = BenchmarkFixtures.apiExceptionFactory(mp);
+		BenchmarkFixtures.bindRequest("POST", "/demo", new Locale("ru"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchmarkFixtures.unbindRequest();
+	}
+
+	@Benchmark
+	public ApiException eagerWithStackTrace() {
+		return deep(stackDepth, () -> new ApiException(HttpStatus.FORBIDDEN, mp.getMessage(CODE), mp.getLocalizedMessage(CODE)));
+	}
+
+	@Benchmark
+	public ApiException withStackTrace() {
+		return deep(stackDepth, () -> apiError.withStackTrace().forbidden(CODE));
+	}
+
+	@Benchmark
+	public ApiException stackless() {
+		return deep(stackDepth, () -> apiError.stackless().forbidden(CODE));
+	}
+
+	@Benchmark
+	public String withStackTraceThrown() {
+		return deep(stackDepth, () -> apiError.withStackTrace().forbidden(CODE)).getLocalizedMessage();
+	}
+
+	@Benchmark
+	public String stacklessThrown() {
+		return deep(stackDepth, () -> apiError.stackless().forbidden(CODE)).getLocalizedMessage();
+	}
+
+	@Benchmark
+	public String stacklessWithArgsThrown() {
+		return deep(stackDepth, () -> apiError.stackless().badRequest("NotNull", "num")).getLocalizedMessage();
+	}
+
+	@Benchmark
+	public String stacklessGeneratedCodeThrown() {
+		return deep(stackDepth, () -> apiError.stackless().forbidden(ErrorCode.MODEL_FORBIDDEN_ID)).getLocalizedMessage();
+	}
+
+	@Benchmark
+	public String stacklessGeneratedCodeWithArgsThrown() {
+		return deep(stackDepth, () -> apiError.stackless().badRequest(CommonErrorCode.NOT_NULL, "num")).getLocalizedMessage();
+	}
+
+	/**
+	 * Creates the exception deeper in the stack, as it happens in a real request thread
+	 */
+	private static ApiException deep(final int depth, final Supplier<ApiException> supplier) {
+		return depth <= 0 ? supplier.get() : deep(depth - 1, supplier);
+	}
+}
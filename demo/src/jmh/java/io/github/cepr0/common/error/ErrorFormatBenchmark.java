@@ -0,0 +1,75 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.cepr0.common.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of the {@link ApiErrorMessage} with N sub-errors to each {@link ErrorFormat} and decoding of its body
+ * by the client. The body sizes are printed on setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ErrorFormatBenchmark {
+
+	@Param({"JSON", "PROBLEM_JSON", "SMILE", "CBOR"})
+	private ErrorFormat format;
+
+	@Param({"1", "100"})
+	private int errors;
+
+	private ErrorResponseRenderer renderer;
+	private ApiErrorMessage errorMessage;
+	private ObjectMapper reader;
+	private byte[] body;
+
+	@Setup
+	public void setup() {
+		ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+		renderer = BenchmarkFixtures.errorResponseRenderer(objectMapper);
+		errorMessage = ApiErrorMessage.builder()
+				.httpStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+				.message("Validation failed")
+				.path("/demo")
+				.build();
+		for (int i = 0; i < errors; i++) {
+			errorMessage.addError(ApiErrorMessage.Error.of("The text value must not be empty!", "model", "[" + i + "].text", ""));
+		}
+		reader = new ObjectMapper(factory(format));
+		body = renderer.render(errorMessage, format);
+		System.out.printf("%n%s, %d errors: %d bytes%n", format, errors, body.length);
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return renderer.render(errorMessage, format);
+	}
+
+	@Benchmark
+	public JsonNode decode() throws IOException {
+		return reader.readTree(body);
+	}
+
+	private static JsonFactory factory(final ErrorFormat format) {
+		switch (format) {
+			case SMILE:
+				return new SmileFactory();
+			case CBOR:
+				return new CBORFactory();
+			default:
+				return new JsonFactory();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.common.message.MessageProvider;
+import io.github.cepr0.demo.Model;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handling of the pre-created exceptions by {@link ExceptionsHandler}, including the body serialization, without logging.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExceptionsHandlerBenchmark {
+
+	@Param({"en", "ru"})
+	private String locale;
+
+	private ExceptionsHandler handler;
+	private ServletWebRequest request;
+
+	private ApiException apiException;
+	private ApiException apiExceptionWithArgs;
+	private ConstraintViolationException constraintViolationException;
+	private ValidationException validationException;
+	private MethodArgumentNotValidException methodArgumentNotValidException;
+	private HttpMessageNotReadableException mappedException;
+	private IllegalStateException unhandledException;
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkFixtures.muteLogging();
+		MessageProvider mp = BenchmarkFixtures.messageProvider();
+		var registry = BenchmarkFixtures.exceptionHandlerRegistry();
+		handler = BenchmarkFixtures.exceptionsHandler(mp, registry);
+		handler.addHandler(HttpMessageNotReadableException.class, HttpStatus.BAD_REQUEST, "request.invalid-body");
+		BenchmarkFixtures.freeze(registry);
+
+		request = BenchmarkFixtures.bindRequest("POST", "/demo", new Locale(locale));
+
+		var apiError = BenchmarkFixtures.apiExceptionFactory(mp);
+		apiException = apiError.stackless().forbidden("model.forbidden-id");
+		apiExceptionWithArgs = apiError.stackless().badRequest("Min", "num", 1);
+
+		var model = new Model();
+		var validator = Validation.buildDefaultValidatorFactory().getValidator();
+		constraintViolationException = new ConstraintViolationException(validator.validate(model));
+
+		validationException = new ValidationException("Validation failed", bindingResult(model));
+
+		var parameter = new MethodParameter(ExceptionsHandlerBenchmark.class.getDeclaredMethod("post", Model.class), 0);
+		methodArgumentNotValidException = new MethodArgumentNotValidException(parameter, bindingResult(model));
+
+		mappedException = new HttpMessageNotReadableException("JSON parse error", new MockHttpInputMessage(new byte[0]));
+		unhandledException = new IllegalStateException("Unexpected state");
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchmarkFixtures.unbindRequest();
+	}
+
+	@Benchmark
+	public Object apiException() {
+		return handler.handleException(apiException, request);
+	}
+
+	@Benchmark
+	public Object apiExceptionWithArgs() {
+		return handler.handleException(apiExceptionWithArgs, request);
+	}
+
+	@Benchmark
+	public Object constraintViolationException() {
+		return handler.handleException(constraintViolationException, request);
+	}
+
+	@Benchmark
+	public Object validationException() {
+		return handler.handleException(validationException, request);
+	}
+
+	@Benchmark
+	public Object methodArgumentNotValidException() throws Exception {
+		return handler.handleException(methodArgumentNotValidException, (WebRequest) request);
+	}
+
+	@Benchmark
+	public Object mappedException() throws Exception {
+		return handler.handleException(mappedException, (WebRequest) request);
+	}
+
+	@Benchmark
+	public Object unhandledException() {
+		return handler.handleException(unhandledException, request);
+	}
+
+	private static BindingResult bindingResult(final Model model) {
+		var result = new BeanPropertyBindingResult(model, "model");
+		result.rejectValue("num", "NotNull", new Object[]{"num"}, "must not be null");
+		result.rejectValue("text", "NotEmpty", new Object[]{"text"}, "must not be empty");
+		return result;
+	}
+
+	@SuppressWarnings("unused")
+	private void post(final Model model) {
+	}
+}
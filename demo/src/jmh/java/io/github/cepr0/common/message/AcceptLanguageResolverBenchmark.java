@@ -0,0 +1,64 @@
+package io.github.cepr0.common.message;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of the 'Accept-Language' headers to the supported locales: cached by {@link AcceptLanguageResolver}
+ * vs parsing and matching of every header, as the default resolver does it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AcceptLanguageResolverBenchmark {
+
+	private static final String[] LANGUAGES = {"en", "ru", "de", "fr", "es", "it", "pl", "uk", "be", "kk"};
+	private static final String[] COUNTRIES = {"US", "GB", "AU", "RU", "DE", "FR", "ES", "IT", "PL", "UA", "BY", "KZ"};
+
+	@Param({"1", "500"})
+	private int headers;
+
+	private List<Locale> supported;
+	private AcceptLanguageResolver resolver;
+	private String[] values;
+	private int next;
+
+	@Setup
+	public void setup() {
+		supported = List.of(Locale.ENGLISH, new Locale("ru"));
+		var props = new LocaleProperties();
+		props.setSupported(supported);
+		props.setDefaultLocale(Locale.ENGLISH);
+		resolver = new AcceptLanguageResolver(props);
+
+		values = new String[headers];
+		for (int i = 0; i < headers; i++) {
+			String language = LANGUAGES[i % LANGUAGES.length];
+			String country = COUNTRIES[(i / LANGUAGES.length) % COUNTRIES.length];
+			values[i] = language + "-" + country + "," + language + ";q=0.9,en;q=" + (1 + i / 120) % 9 / 10.0;
+		}
+	}
+
+	@Benchmark
+	public Locale cached() {
+		return resolver.resolve(nextHeader());
+	}
+
+	@Benchmark
+	public Locale parsed() {
+		Locale locale = Locale.lookup(Locale.LanguageRange.parse(nextHeader()), supported);
+		return locale != null ? locale : Locale.ENGLISH;
+	}
+
+	private String nextHeader() {
+		String value = values[next];
+		next = next + 1 < values.length ? next + 1 : 0;
+		return value;
+	}
+}
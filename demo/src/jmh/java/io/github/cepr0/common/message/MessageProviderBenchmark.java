@@ -0,0 +1,97 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.demo.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.FieldError;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageProviderBenchmark {
+
+	@Param({"en", "ru"})
+	private String locale;
+
+	private MessageProvider mp;
+	private FieldError fieldError;
+	private FieldError unresolvedFieldError;
+
+	@Setup
+	public void setup() {
+		mp = BenchmarkFixtures.messageProvider();
+		fieldError = fieldError("Length", null);
+		unresolvedFieldError = fieldError("Unknown", "The text value is invalid!");
+		BenchmarkFixtures.bindRequest("POST", "/demo", new Locale(locale));
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchmarkFixtures.unbindRequest();
+	}
+
+	@Benchmark
+	public String codeWithoutArgs() {
+		return mp.getLocalizedMessage("model.forbidden-id");
+	}
+
+	@Benchmark
+	public String codeWithArgs() {
+		return mp.getLocalizedMessage("Length", "text", 4, 1);
+	}
+
+	@Benchmark
+	public String parentCode() {
+		return mp.getLocalizedMessage("validation.failed");
+	}
+
+	@Benchmark
+	public String generatedCodeWithoutArgs() {
+		return mp.getLocalizedMessage(ErrorCode.MODEL_FORBIDDEN_ID);
+	}
+
+	@Benchmark
+	public String generatedCodeWithArgs() {
+		return mp.getLocalizedMessage(CommonErrorCode.LENGTH, "text", 4, 1);
+	}
+
+	@Benchmark
+	public String generatedParentCode() {
+		return mp.getLocalizedMessage(CommonErrorCode.VALIDATION_FAILED);
+	}
+
+	@Benchmark
+	public String unresolvedCode() {
+		return mp.getLocalizedMessage("Model %s is not found", 1);
+	}
+
+	/**
+	 * Field error with four codes, only the last one, 'Length', is resolved
+	 */
+	@Benchmark
+	public String fieldError() {
+		return mp.getLocalizedMessage(fieldError);
+	}
+
+	/**
+	 * Field error with four codes, none of which is resolved, so the default message is used
+	 */
+	@Benchmark
+	public String unresolvedFieldError() {
+		return mp.getLocalizedMessage(unresolvedFieldError);
+	}
+
+	private static FieldError fieldError(final String errorCode, final String defaultMessage) {
+		String[] codes = new DefaultMessageCodesResolver().resolveMessageCodes(errorCode, "model", "text", String.class);
+		Object[] args = {new DefaultMessageSourceResolvable(new String[]{"model.text", "text"}, "text"), 4, 1};
+		return new FieldError("model", "text", "", false, codes, args, defaultMessage);
+	}
+}
@@ -0,0 +1,71 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.demo.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the tenant overrides: 'none' is the provider without the near-cache, 'other' is a tenant unknown to the store,
+ * 'acme' overrides the message of 'model.forbidden-id' only, so the other codes cost a missed probe of its overrides.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TenantMessageBenchmark {
+
+	private static final String OVERRIDDEN = "model.forbidden-id";
+
+	@Param({"none", "other", "acme"})
+	private String tenant;
+
+	private MessageProvider mp;
+	private MessageNearCache nearCache;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		var props = new MessageStoreProperties();
+		MessageStore store = (t, locale, version) -> "acme".equals(t)
+				? new MessageStore.Messages("1", Map.of(OVERRIDDEN, "Forbidden for ACME"))
+				: new MessageStore.Messages("1", Map.of());
+
+		if (!"none".equals(tenant)) {
+			nearCache = new MessageNearCache(store, () -> tenant, props);
+			nearCache.getOverrides(tenant, Locale.ENGLISH); // the first lookup schedules the probe of the tenant
+			while ("acme".equals(tenant) && nearCache.getVersions().isEmpty()) {
+				Thread.sleep(10);
+			}
+		}
+		mp = BenchmarkFixtures.messageProvider(nearCache);
+		BenchmarkFixtures.bindRequest("POST", "/demo", Locale.ENGLISH);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchmarkFixtures.unbindRequest();
+		if (nearCache != null) {
+			nearCache.destroy();
+		}
+	}
+
+	@Benchmark
+	public String overriddenCode() {
+		return mp.getLocalizedMessage(ErrorCode.MODEL_FORBIDDEN_ID);
+	}
+
+	@Benchmark
+	public String generatedCode() {
+		return mp.getLocalizedMessage(CommonErrorCode.VALIDATION_FAILED);
+	}
+
+	@Benchmark
+	public String codeWithArgs() {
+		return mp.getLocalizedMessage("Length", "text", 4, 1);
+	}
+}
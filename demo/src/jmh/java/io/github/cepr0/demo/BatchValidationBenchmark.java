@@ -0,0 +1,98 @@
+package io.github.cepr0.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.common.message.MessageProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of N models: as one batch by {@link BatchValidator} vs N sequential single-model posts,
+ * each one parsed, validated and checked by {@link Application#post(Model)}. Every 10th model is invalid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchValidationBenchmark {
+
+	@Param({"1000", "10000"})
+	private int models;
+
+	@Param({"1", "4"})
+	private int parallelism;
+
+	private ObjectMapper objectMapper;
+	private LocalValidatorFactoryBean validator;
+	private BatchValidator batchValidator;
+	private Application application;
+
+	private byte[] batch;
+	private List<byte[]> singles;
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkFixtures.muteLogging();
+		objectMapper = BenchmarkFixtures.objectMapper();
+		validator = BenchmarkFixtures.validator();
+		batchValidator = BenchmarkFixtures.batchValidator(objectMapper, parallelism);
+
+		MessageProvider mp = BenchmarkFixtures.messageProvider();
+		var registry = BenchmarkFixtures.exceptionHandlerRegistry();
+		application = new Application(
+				BenchmarkFixtures.apiExceptionFactory(mp),
+				BenchmarkFixtures.exceptionsHandler(mp, registry),
+				batchValidator,
+				new SyncTaskExecutor()
+		);
+		BenchmarkFixtures.freeze(registry);
+
+		var list = new ArrayList<Model>(models);
+		singles = new ArrayList<>(models);
+		for (int i = 0; i < models; i++) {
+			var model = new Model();
+			model.setNum(i % 10 == 0 ? 0 : 1 + i % 10);
+			model.setText(i % 20 == 0 ? "" : "text");
+			list.add(model);
+			singles.add(objectMapper.writeValueAsBytes(model));
+		}
+		batch = objectMapper.writeValueAsBytes(list);
+	}
+
+	@TearDown
+	public void tearDown() {
+		batchValidator.destroy();
+	}
+
+	@Benchmark
+	public BatchValidator.Result batch() throws Exception {
+		return batchValidator.validate(new ByteArrayInputStream(batch), false, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public int sequential() throws Exception {
+		int invalid = 0;
+		for (byte[] single : singles) {
+			var model = objectMapper.readValue(single, Model.class);
+			var errors = new BeanPropertyBindingResult(model, "model");
+			validator.validate(model, errors);
+			if (errors.hasErrors()) {
+				invalid++;
+				continue;
+			}
+			if (!application.post(model).isValid()) {
+				invalid++;
+			}
+		}
+		return invalid;
+	}
+}
@@ -0,0 +1,78 @@
+package io.github.cepr0.demo;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Startup time and heap footprint of a bare servlet application with and without the exception handling starter.
+ * Every fork starts the application once, the auto-configs of the starter are excluded when 'starter' is false,
+ * so the difference is the cost of the starter itself: its beans, conditions and message bundles.
+ * <p/>
+ * 'heapKb' is the used heap after a full GC, 'beans' is the number of the bean definitions.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StarterFootprintBenchmark {
+
+	private static final String STARTER_PACKAGE = "io.github.cepr0.common.";
+
+	@Param({"false", "true"})
+	private boolean starter;
+
+	private ConfigurableApplicationContext context;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public long heapKb;
+		public long beans;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ConfigurableApplicationContext start(final Footprint footprint) {
+		context = new SpringApplicationBuilder(BareApplication.class)
+				.properties("server.port=0", "logging.level.root=warn", "spring.autoconfigure.exclude=" + excludes())
+				.run();
+
+		System.gc();
+		footprint.heapKb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024;
+		footprint.beans = context.getBeanDefinitionCount();
+		return context;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private String excludes() {
+		if (starter) {
+			return "";
+		}
+		return SpringFactoriesLoader.loadFactoryNames(EnableAutoConfiguration.class, getClass().getClassLoader()).stream()
+				.filter(name -> name.startsWith(STARTER_PACKAGE))
+				.collect(Collectors.joining(","));
+	}
+
+	/**
+	 * No component scan, so only the auto-configs contribute to the context
+	 */
+	@SpringBootConfiguration
+	@EnableAutoConfiguration
+	static class BareApplication {
+	}
+}
@@ -0,0 +1,60 @@
+package io.github.cepr0.demo;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first failed request after the application start, with and without the warm-up.
+ * Every fork starts the application on a random port, then the HTTP client, the server and the dispatcher servlet
+ * are initialized with the health request, so only the first invalid POST in the 'ru' locale is measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+	@Param({"false", "true"})
+	private boolean warmUp;
+
+	private ConfigurableApplicationContext context;
+	private HttpClient client;
+	private HttpRequest request;
+
+	@Setup
+	public void setup() throws Exception {
+		context = new SpringApplicationBuilder(Application.class)
+				.properties("server.port=0", "warm-up.enabled=" + warmUp, "logging.level.root=warn", "logging.level.io.github.cepr0=warn")
+				.run();
+		String url = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+		client = HttpClient.newHttpClient();
+		client.send(HttpRequest.newBuilder(URI.create(url + "/actuator/health")).build(), HttpResponse.BodyHandlers.discarding());
+
+		request = HttpRequest.newBuilder(URI.create(url + "/demo"))
+				.header("Content-Type", "application/json")
+				.header("Accept-Language", "ru")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"num\": null, \"text\": \"\"}"))
+				.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int firstFailedRequest() throws Exception {
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+	}
+}
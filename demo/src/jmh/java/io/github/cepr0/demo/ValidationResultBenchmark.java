@@ -0,0 +1,95 @@
+package io.github.cepr0.demo;
+
+import io.github.cepr0.common.BenchmarkFixtures;
+import io.github.cepr0.common.error.ApiException;
+import io.github.cepr0.common.error.ApiExceptionFactory;
+import io.github.cepr0.common.error.ValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking of the {@link Model} with the {@link ModelRule}s when the violation is thrown as {@link ApiException}
+ * (with and without the stack trace) against returned as {@link ValidationResult}, deep in the stack as in a real request.
+ * The 'failureRate' is the percentage of the invalid models. The messages are not resolved: the error responses
+ * of both are rendered from the same {@link io.github.cepr0.common.error.ErrorResponseCache} by the code.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationResultBenchmark {
+
+	private static final int MODELS = 100;
+	private static final int STACK_DEPTH = 32;
+
+	@Param({"0", "10", "50", "100"})
+	private int failureRate;
+
+	private ApiExceptionFactory apiError;
+	private Model[] models;
+	private int next;
+
+	@Setup
+	public void setup() {
+		apiError = BenchmarkFixtures.apiExceptionFactory(BenchmarkFixtures.messageProvider());
+
+		models = new Model[MODELS];
+		for (int i = 0; i < MODELS; i++) {
+			var model = new Model();
+			model.setNum(i < failureRate ? 0 : 1);
+			model.setText("text");
+			models[i] = model;
+		}
+	}
+
+	@Benchmark
+	public String thrownWithStackTrace() {
+		return thrown(apiError.withStackTrace());
+	}
+
+	@Benchmark
+	public String thrownStackless() {
+		return thrown(apiError.stackless());
+	}
+
+	@Benchmark
+	public String returned() {
+		ValidationResult<Model> result = returned(STACK_DEPTH, nextModel());
+		return result.isValid() ? String.valueOf(result.getValue().getNum()) : result.getCode();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private String thrown(final ApiExceptionFactory factory) {
+		try {
+			return String.valueOf(thrown(STACK_DEPTH, nextModel(), factory).getNum());
+		} catch (ApiException e) {
+			return e.getCode();
+		}
+	}
+
+	private static Model thrown(final int depth, final Model model, final ApiExceptionFactory factory) {
+		if (depth > 0) {
+			return thrown(depth - 1, model, factory);
+		}
+		for (ModelRule rule : ModelRule.values()) {
+			if (rule.isViolatedBy(model)) {
+				throw factory.with(rule.getHttpStatus(), rule.getCode());
+			}
+		}
+		return model;
+	}
+
+	private static ValidationResult<Model> returned(final int depth, final Model model) {
+		return depth <= 0 ? ModelRule.ALL.validate(model) : returned(depth - 1, model);
+	}
+
+	private Model nextModel() {
+		Model model = models[next];
+		next = (next + 1) % MODELS;
+		return model;
+	}
+}
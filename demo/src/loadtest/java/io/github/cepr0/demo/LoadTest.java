@@ -0,0 +1,377 @@
+package io.github.cepr0.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the demo application: starts it on a random port and replays the scenarios of the HTTP requests
+ * collection (demo.http) from many concurrent clients, fully in-process and offline.
+ * <p/>
+ * Every client sends the requests of the randomly chosen scenarios (according to their weights) one by one,
+ * so the latency is measured in the closed loop: a stalled server slows down the clients instead of queueing
+ * the requests. The latency of every scenario is recorded in HdrHistogram, the happy-path (2xx) and error-path
+ * latencies are aggregated separately. Allocation per request is measured for the server threads only.
+ * <p/>
+ * The result is written as JSON. If the baseline result is given, the test fails (exits with 1) if the p99 latency
+ * or the throughput of any scenario is worse than the baseline by more than the tolerance.
+ * <p/>
+ * Settings (system properties):
+ * <ul>
+ *     <li>loadtest.file - the requests collection, 'demo.http' by default;</li>
+ *     <li>loadtest.mix - weights of the scenarios by their names, e.g. 'Correct request=8,Num is negative=2',
+ *     all scenarios of the collection with weight 1 by default;</li>
+ *     <li>loadtest.clients - number of the concurrent clients, 32 by default;</li>
+ *     <li>loadtest.warmup, loadtest.duration - duration of the warm-up and the measurement, 'PT10S' and 'PT30S' by default;</li>
+ *     <li>loadtest.result - the result file, 'target/loadtest-result.json' by default;</li>
+ *     <li>loadtest.baseline - the previous result to compare with, none by default;</li>
+ *     <li>loadtest.tolerance - allowed degradation, 0.2 by default.</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+	private static final String CLIENT_THREAD = "loadtest-";
+	private static final String HTTP_CLIENT_THREAD = "HttpClient-";
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final List<Scenario> scenarios;
+	private final int[] mix;
+	private final int clients;
+	private final HttpClient httpClient;
+	private final ExecutorService executor;
+	private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+	private LoadTest(final List<Scenario> scenarios, final int[] mix, final int clients) {
+		this.scenarios = scenarios;
+		this.mix = mix;
+		this.clients = clients;
+		var threads = new AtomicInteger();
+		this.executor = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, CLIENT_THREAD + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(executor)
+				.build();
+	}
+
+	public static void main(String[] args) throws Exception {
+		var scenarios = Scenario.parse(Paths.get(System.getProperty("loadtest.file", "demo.http")));
+		var loadTest = new LoadTest(scenarios, mix(scenarios, System.getProperty("loadtest.mix")), Integer.getInteger("loadtest.clients", 32));
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+				.properties("server.port=0", "logging.level.root=warn", "logging.level.io.github.cepr0=error")
+				.run(args);
+		boolean passed;
+		try {
+			URI baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+			passed = loadTest.run(baseUri);
+		} finally {
+			context.close();
+			loadTest.executor.shutdownNow();
+		}
+		System.exit(passed ? 0 : 1);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * @return false if the result is worse than the baseline
+	 */
+	private boolean run(@NonNull final URI baseUri) throws Exception {
+		List<HttpRequest> requests = new ArrayList<>();
+		for (Scenario scenario : scenarios) {
+			requests.add(scenario.toRequest(baseUri));
+		}
+
+		Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+		Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+
+		System.out.printf("Warm-up: %d clients, %s%n", clients, warmup);
+		load(requests, warmup);
+
+		System.out.printf("Measurement: %d clients, %s%n", clients, duration);
+		Map<Long, Long> allocatedBefore = serverAllocatedBytes();
+		long start = System.nanoTime();
+		List<ClientStats> stats = load(requests, duration);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long allocated = allocatedSince(allocatedBefore);
+
+		Map<String, Object> result = report(merge(stats), seconds, allocated);
+		Path resultFile = Paths.get(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+		Files.createDirectories(resultFile.toAbsolutePath().getParent());
+		objectMapper.writeValue(resultFile.toFile(), result);
+		System.out.printf("%nResult is written to %s%n", resultFile);
+
+		String baseline = System.getProperty("loadtest.baseline");
+		return baseline == null || baseline.isBlank() || compare(result, Paths.get(baseline), Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2")));
+	}
+
+	@NonNull
+	private List<ClientStats> load(@NonNull final List<HttpRequest> requests, @NonNull final Duration duration) throws InterruptedException {
+		List<ClientStats> result = new ArrayList<>();
+		var done = new CountDownLatch(clients);
+		long deadline = System.nanoTime() + duration.toNanos();
+		for (int i = 0; i < clients; i++) {
+			var stats = new ClientStats(scenarios.size());
+			result.add(stats);
+			executor.execute(() -> {
+				try {
+					send(requests, stats, deadline);
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		return result;
+	}
+
+	private void send(@NonNull final List<HttpRequest> requests, @NonNull final ClientStats stats, final long deadline) {
+		var random = ThreadLocalRandom.current();
+		long now = System.nanoTime();
+		while (now < deadline) {
+			int scenario = mix[random.nextInt(mix.length)];
+			int status;
+			try {
+				status = httpClient.send(requests.get(scenario), HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+			} catch (IOException e) {
+				status = 0;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long end = System.nanoTime();
+			stats.record(scenario, status, end - now);
+			now = end;
+		}
+	}
+
+	@NonNull
+	private ClientStats merge(@NonNull final List<ClientStats> stats) {
+		var result = new ClientStats(scenarios.size());
+		stats.forEach(result::add);
+		return result;
+	}
+
+	@NonNull
+	private Map<String, Object> report(@NonNull final ClientStats stats, final double seconds, final long allocated) {
+		var happy = new Histogram(SIGNIFICANT_DIGITS);
+		var error = new Histogram(SIGNIFICANT_DIGITS);
+		long total = 0;
+
+		System.out.printf("%n%-28s %10s %10s %10s %10s %10s %10s  %s%n", "Scenario", "Requests", "Req/s", "p50, us", "p99, us", "p99.9, us", "Max, us", "Statuses");
+		Map<String, Object> scenarioResults = new LinkedHashMap<>();
+		for (int i = 0; i < scenarios.size(); i++) {
+			Histogram histogram = stats.histograms[i];
+			if (histogram.getTotalCount() == 0) {
+				continue;
+			}
+			total += histogram.getTotalCount();
+			if (stats.statuses[i].keySet().stream().allMatch(status -> status >= 200 && status < 300)) {
+				happy.add(histogram);
+			} else {
+				error.add(histogram);
+			}
+			String name = scenarios.get(i).getName();
+			System.out.printf("%-28s %s  %s%n", name, row(histogram, seconds), stats.statuses[i]);
+			scenarioResults.put(name, result(histogram, seconds));
+		}
+		System.out.printf("%-28s %s%n", "Happy path (2xx)", row(happy, seconds));
+		System.out.printf("%-28s %s%n", "Error path", row(error, seconds));
+
+		long allocatedPerRequest = total > 0 ? allocated / total : 0;
+		System.out.printf("%nThroughput: %.0f req/s, server allocation: %d bytes/req%n", total / seconds, allocatedPerRequest);
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("clients", clients);
+		result.put("seconds", seconds);
+		result.put("requests", total);
+		result.put("throughput", total / seconds);
+		result.put("allocatedBytesPerRequest", allocatedPerRequest);
+		result.put("happyPath", result(happy, seconds));
+		result.put("errorPath", result(error, seconds));
+		result.put("scenarios", scenarioResults);
+		return result;
+	}
+
+	/**
+	 * @return false if the p99 latency or the throughput of any scenario is worse than the baseline by more than the tolerance
+	 */
+	private boolean compare(@NonNull final Map<String, Object> result, @NonNull final Path baselineFile, final double tolerance) throws IOException {
+		JsonNode baseline = objectMapper.readTree(baselineFile.toFile());
+		JsonNode current = objectMapper.valueToTree(result);
+		boolean passed = true;
+		System.out.printf("%nComparison with %s (tolerance %.0f%%):%n", baselineFile, tolerance * 100);
+		var it = current.get("scenarios").fields();
+		while (it.hasNext()) {
+			var entry = it.next();
+			JsonNode base = baseline.path("scenarios").get(entry.getKey());
+			if (base == null) {
+				continue;
+			}
+			double p99 = entry.getValue().get("p99").asDouble();
+			double baseP99 = base.get("p99").asDouble();
+			double throughput = entry.getValue().get("throughput").asDouble();
+			double baseThroughput = base.get("throughput").asDouble();
+			boolean regressed = p99 > baseP99 * (1 + tolerance) || throughput < baseThroughput * (1 - tolerance);
+			passed &= !regressed;
+			System.out.printf("%-28s p99 %8.0f -> %8.0f us, %8.0f -> %8.0f req/s%s%n",
+					entry.getKey(), baseP99, p99, baseThroughput, throughput, regressed ? "  REGRESSION" : "");
+		}
+		return passed;
+	}
+
+	@NonNull
+	private static String row(@NonNull final Histogram histogram, final double seconds) {
+		return String.format("%10d %10.0f %10d %10d %10d %10d",
+				histogram.getTotalCount(),
+				histogram.getTotalCount() / seconds,
+				micros(histogram.getValueAtPercentile(50)),
+				micros(histogram.getValueAtPercentile(99)),
+				micros(histogram.getValueAtPercentile(99.9)),
+				micros(histogram.getMaxValue()));
+	}
+
+	@NonNull
+	private static Map<String, Object> result(@NonNull final Histogram histogram, final double seconds) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("requests", histogram.getTotalCount());
+		result.put("throughput", histogram.getTotalCount() / seconds);
+		result.put("p50", micros(histogram.getValueAtPercentile(50)));
+		result.put("p99", micros(histogram.getValueAtPercentile(99)));
+		result.put("p999", micros(histogram.getValueAtPercentile(99.9)));
+		result.put("max", micros(histogram.getMaxValue()));
+		return result;
+	}
+
+	private static long micros(final long nanos) {
+		return nanos / 1000;
+	}
+
+	/**
+	 * @return indexes of the scenarios, each one repeated according to its weight
+	 */
+	@NonNull
+	private static int[] mix(@NonNull final List<Scenario> scenarios, @Nullable final String mix) {
+		Map<String, Integer> weights = new HashMap<>();
+		if (mix != null && !mix.isBlank()) {
+			for (String entry : mix.split(",")) {
+				int eq = entry.lastIndexOf('=');
+				String name = eq < 0 ? entry.trim() : entry.substring(0, eq).trim();
+				int weight = eq < 0 ? 1 : Integer.parseInt(entry.substring(eq + 1).trim());
+				if (scenarios.stream().noneMatch(scenario -> scenario.getName().equals(name))) {
+					throw new IllegalArgumentException("Unknown scenario: " + name);
+				}
+				weights.put(name, weight);
+			}
+		}
+
+		List<Integer> result = new ArrayList<>();
+		for (int i = 0; i < scenarios.size(); i++) {
+			int weight = weights.isEmpty() ? 1 : weights.getOrDefault(scenarios.get(i).getName(), 0);
+			for (int w = 0; w < weight; w++) {
+				result.add(i);
+			}
+		}
+		if (result.isEmpty()) {
+			throw new IllegalArgumentException("No scenarios to run");
+		}
+		return result.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @return allocated bytes of the live server threads by their ids (the client threads are excluded)
+	 */
+	@NonNull
+	private static Map<Long, Long> serverAllocatedBytes() {
+		var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long[] ids = threads.getAllThreadIds();
+		long[] allocated = threads.getThreadAllocatedBytes(ids);
+		ThreadInfo[] infos = threads.getThreadInfo(ids);
+		Map<Long, Long> result = new HashMap<>();
+		for (int i = 0; i < ids.length; i++) {
+			if (infos[i] == null || allocated[i] < 0) {
+				continue;
+			}
+			String name = infos[i].getThreadName();
+			if (!name.startsWith(CLIENT_THREAD) && !name.startsWith(HTTP_CLIENT_THREAD)) {
+				result.put(ids[i], allocated[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return bytes allocated by the server threads since the snapshot, the threads terminated in between are not counted
+	 */
+	private static long allocatedSince(@NonNull final Map<Long, Long> before) {
+		long result = 0;
+		for (Map.Entry<Long, Long> entry : serverAllocatedBytes().entrySet()) {
+			result += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+		}
+		return result;
+	}
+
+	/**
+	 * Latencies and response statuses of the scenarios sent by one client
+	 */
+	private static final class ClientStats {
+		private final Histogram[] histograms;
+		private final Map<Integer, Long>[] statuses;
+
+		@SuppressWarnings("unchecked")
+		private ClientStats(final int scenarios) {
+			histograms = new Histogram[scenarios];
+			statuses = new Map[scenarios];
+			for (int i = 0; i < scenarios; i++) {
+				histograms[i] = new Histogram(SIGNIFICANT_DIGITS);
+				statuses[i] = new TreeMap<>();
+			}
+		}
+
+		private void record(final int scenario, final int status, final long nanos) {
+			histograms[scenario].recordValue(nanos);
+			statuses[scenario].merge(status, 1L, Long::sum);
+		}
+
+		private void add(@NonNull final ClientStats other) {
+			for (int i = 0; i < histograms.length; i++) {
+				histograms[i].add(other.histograms[i]);
+				int scenario = i;
+				other.statuses[i].forEach((status, count) -> statuses[scenario].merge(status, count, Long::sum));
+			}
+		}
+	}
+}
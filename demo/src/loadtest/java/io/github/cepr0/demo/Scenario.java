@@ -0,0 +1,109 @@
+package io.github.cepr0.demo;
+
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request scenario of the HTTP requests collection (demo.http): the last comment line before the request line
+ * is the scenario name, followed by the request line, the headers and the body. Requests are separated by '###'.
+ */
+@Getter
+final class Scenario {
+
+	private static final String SEPARATOR = "###";
+
+	private final String name;
+	private final String method;
+	private final URI uri;
+	private final Map<String, String> headers;
+	private final String body;
+
+	private Scenario(final String name, final String method, final URI uri, final Map<String, String> headers, final String body) {
+		this.name = name;
+		this.method = method;
+		this.uri = uri;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * @return scenarios of the requests collection in the order of the file
+	 */
+	@NonNull
+	static List<Scenario> parse(@NonNull final Path file) throws IOException {
+		List<Scenario> result = new ArrayList<>();
+		List<String> block = new ArrayList<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			if (line.startsWith(SEPARATOR)) {
+				parse(block, result);
+				block.clear();
+			} else {
+				block.add(line);
+			}
+		}
+		parse(block, result);
+		return result;
+	}
+
+	/**
+	 * @return the request of the scenario to the application listening on the given base URI
+	 */
+	@NonNull
+	HttpRequest toRequest(@NonNull final URI baseUri) {
+		URI target = baseUri.resolve(uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+		var builder = HttpRequest.newBuilder(target);
+		headers.forEach(builder::header);
+		var publisher = body.isEmpty()
+				? HttpRequest.BodyPublishers.noBody()
+				: HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8);
+		return builder.method(method, publisher).build();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private static void parse(@NonNull final List<String> block, @NonNull final List<Scenario> result) {
+		String name = null;
+		int i = 0;
+		for (; i < block.size(); i++) {
+			String line = block.get(i).trim();
+			if (line.startsWith("#")) {
+				name = line.substring(1).trim();
+			} else if (!line.isEmpty()) {
+				break;
+			}
+		}
+		if (i == block.size()) {
+			return;
+		}
+
+		String[] requestLine = block.get(i++).trim().split("\\s+");
+		if (requestLine.length < 2) {
+			throw new IllegalArgumentException("Invalid request line: " + String.join(" ", requestLine));
+		}
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		for (; i < block.size() && !block.get(i).trim().isEmpty(); i++) {
+			String header = block.get(i);
+			int colon = header.indexOf(':');
+			headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+		}
+
+		String body = String.join("\n", block.subList(Math.min(i, block.size()), block.size())).trim();
+		String method = requestLine[0];
+		result.add(new Scenario(name != null ? name : method + " " + requestLine[1], method, URI.create(requestLine[1]), headers, body));
+	}
+}
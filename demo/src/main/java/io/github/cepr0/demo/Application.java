@@ -0,0 +1,115 @@
+package io.github.cepr0.demo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.cepr0.common.error.ApiExceptionFactory;
+import io.github.cepr0.common.error.ErrorContext;
+import io.github.cepr0.common.error.ExceptionsHandler;
+import io.github.cepr0.common.error.ValidationException;
+import io.github.cepr0.common.error.ValidationResult;
+import io.github.cepr0.common.message.CommonErrorCode;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.NoHandlerFoundException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("demo")
+@SpringBootApplication
+public class Application {
+
+	private final ApiExceptionFactory apiError;
+	private final BatchValidator batchValidator;
+	private final TaskExecutor taskExecutor;
+
+	public Application(
+			ApiExceptionFactory apiError,
+			ExceptionsHandler exceptionsHandler,
+			BatchValidator batchValidator,
+			TaskExecutor taskExecutor
+	) {
+		this.apiError = apiError;
+		this.batchValidator = batchValidator;
+		this.taskExecutor = taskExecutor;
+
+		// HttpMessageNotReadableException custom handler
+		exceptionsHandler.addHandler(
+				HttpMessageNotReadableException.class,
+				HttpStatus.BAD_REQUEST,
+				ErrorCode.REQUEST_INVALID_BODY
+		);
+
+		// https://stackoverflow.com/a/48312952
+		// NoHandlerFoundException custom handler
+		exceptionsHandler.addHandler(
+				NoHandlerFoundException.class,
+				HttpStatus.NOT_FOUND,
+				CommonErrorCode.REQUEST_PATH_UNSUPPORTED
+		);
+	}
+
+	public static void main(String[] args) {
+		SpringApplication.run(Application.class, args);
+		Locale.setDefault(Locale.US);
+	}
+
+	/**
+	 * Checks the model with the {@link ModelRule}s. The rule violation is returned as the failed result, not thrown:
+	 * it's rendered to the same error response, see {@link io.github.cepr0.common.error.ValidationResultReturnValueHandler}
+	 */
+	@PostMapping
+	public ValidationResult<Model> post(@Valid @RequestBody @NonNull final Model model) {
+		return ModelRule.ALL.validate(model);
+	}
+
+	/**
+	 * Checks the model as {@link #post(Model)} does, but in the application task executor.
+	 * The error context of the request is propagated to the task by the executor, see {@link ErrorContext}.
+	 * The rule violation is thrown as {@link io.github.cepr0.common.error.ApiException} to complete the future exceptionally.
+	 */
+	@PostMapping("async")
+	public CompletableFuture<Model> postAsync(@Valid @RequestBody @NonNull final Model model) {
+		return CompletableFuture.supplyAsync(() -> post(model).orElseThrow(apiError), taskExecutor);
+	}
+
+	/**
+	 * Validates the JSON array of models as {@link #post(Model)} does for a single one,
+	 * and returns all errors in one response, with the item indexes in the property paths, e.g. '[1234].text'
+	 *
+	 * @param failFast stop on the first invalid item
+	 * @param maxErrors stop when this number of errors is collected, 'demo.batch.max-errors' by default
+	 * @return the number of the validated items, if they all are valid
+	 */
+	@PostMapping("batch")
+	public Map<String, Integer> batch(
+			@NonNull final HttpServletRequest request,
+			@RequestParam(defaultValue = "false") final boolean failFast,
+			@RequestParam(required = false) final Integer maxErrors
+	) throws IOException {
+		var inputMessage = new ServletServerHttpRequest(request);
+		BatchValidator.Result result;
+		try {
+			result = maxErrors != null
+					? batchValidator.validate(inputMessage.getBody(), failFast, maxErrors)
+					: batchValidator.validate(inputMessage.getBody(), failFast);
+		} catch (JsonProcessingException e) {
+			throw new HttpMessageNotReadableException("Invalid batch: " + e.getOriginalMessage(), e, inputMessage);
+		}
+
+		if (result.getErrors().hasErrors()) {
+			throw new ValidationException("Batch validation failed", result.getErrors());
+		}
+		return Map.of("count", result.getCount());
+	}
+}
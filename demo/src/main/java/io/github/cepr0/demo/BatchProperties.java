@@ -0,0 +1,27 @@
+package io.github.cepr0.demo;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batch validation settings, bound to the {@code demo.batch.*} properties.
+ */
+@Data
+@ConfigurationProperties("demo.batch")
+public class BatchProperties {
+
+	/**
+	 * Number of the threads validating the batch items, all available processors by default
+	 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Number of the items which are read from the request and validated at once
+	 */
+	private int chunkSize = 1024;
+
+	/**
+	 * Default max number of the errors, after which the validation stops
+	 */
+	private int maxErrors = 1000;
+}
@@ -0,0 +1,213 @@
+package io.github.cepr0.demo;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Validates the JSON array of {@link Model}s with the bean validation constraints and the {@link ModelRule}s,
+ * as {@link Application#post(Model)} does for a single model, but without throwing on the invalid items.
+ * <p/>
+ * The array is read from the stream by chunks, the items of a chunk are validated in parallel
+ * on the bounded fork-join pool. The errors are collected in the order of the items, with their indexes
+ * in the property paths, e.g. '[1234].text'.
+ */
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchValidator implements DisposableBean {
+
+	static final String OBJECT_NAME = "model";
+
+	private final ObjectMapper objectMapper;
+	private final LocalValidatorFactoryBean validator;
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+	private final int defaultMaxErrors;
+
+	public BatchValidator(final ObjectMapper objectMapper, final LocalValidatorFactoryBean validator, final BatchProperties props) {
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.pool = new ForkJoinPool(props.getParallelism());
+		this.chunkSize = props.getChunkSize();
+		this.defaultMaxErrors = props.getMaxErrors();
+	}
+
+	/**
+	 * Validates the batch with the default max number of errors
+	 */
+	@NonNull
+	public Result validate(@NonNull final InputStream batch, final boolean failFast) throws IOException {
+		return validate(batch, failFast, defaultMaxErrors);
+	}
+
+	/**
+	 * Reads and validates the batch until its end, or until the first invalid item if it's 'fail fast',
+	 * or until the max number of errors is collected.
+	 *
+	 * @return the number of the read items and the collected errors
+	 */
+	@NonNull
+	public Result validate(@NonNull final InputStream batch, final boolean failFast, final int maxErrors) throws IOException {
+		var errors = new MapBindingResult(new HashMap<>(), OBJECT_NAME);
+		int count = 0;
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(batch)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw MismatchedInputException.from(parser, List.class, "Array of models expected");
+			}
+
+			var chunk = new ArrayList<Model>(chunkSize);
+			boolean done = false;
+			while (!done) {
+				chunk.clear();
+				while (chunk.size() < chunkSize) {
+					JsonToken token = parser.nextToken();
+					if (token == JsonToken.END_ARRAY) {
+						done = true;
+						break;
+					}
+					if (token != JsonToken.START_OBJECT) {
+						throw MismatchedInputException.from(parser, Model.class, "Model expected");
+					}
+					chunk.add(objectMapper.readValue(parser, Model.class));
+				}
+
+				List<List<ObjectError>> chunkErrors = validate(chunk, count);
+				count += chunk.size();
+
+				for (List<ObjectError> itemErrors : chunkErrors) {
+					for (ObjectError error : itemErrors) {
+						if (errors.getErrorCount() >= maxErrors) {
+							return new Result(count, errors);
+						}
+						errors.addError(error);
+					}
+					if (failFast && !itemErrors.isEmpty()) {
+						return new Result(count, errors);
+					}
+				}
+				if (errors.getErrorCount() >= maxErrors) {
+					return new Result(count, errors);
+				}
+			}
+		}
+		return new Result(count, errors);
+	}
+
+	@Override
+	public void destroy() {
+		pool.shutdownNow();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * @return errors of each item of the chunk, in the order of the items
+	 */
+	@NonNull
+	private List<List<ObjectError>> validate(@NonNull final List<Model> chunk, final int offset) {
+		if (chunk.isEmpty()) {
+			return List.of();
+		}
+		try {
+			return pool.submit(() -> IntStream.range(0, chunk.size())
+					.parallel()
+					.mapToObj(i -> validate(chunk.get(i), offset + i))
+					.collect(Collectors.toList())
+			).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Batch validation has been interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Batch validation has failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Validates the item with the bean validation constraints, then with the business rules, as it's done for a single model
+	 */
+	@NonNull
+	private List<ObjectError> validate(@NonNull final Model model, final int index) {
+		var itemErrors = new BeanPropertyBindingResult(model, OBJECT_NAME);
+		validator.validate(model, itemErrors);
+
+		if (itemErrors.hasErrors()) {
+			var result = new ArrayList<ObjectError>(itemErrors.getErrorCount());
+			for (FieldError error : itemErrors.getFieldErrors()) {
+				result.add(new FieldError(
+						OBJECT_NAME,
+						property(index, error.getField()),
+						error.getRejectedValue(),
+						error.isBindingFailure(),
+						error.getCodes(),
+						error.getArguments(),
+						error.getDefaultMessage()
+				));
+			}
+			return result;
+		}
+
+		ModelRule rule = ModelRule.firstViolatedBy(model);
+		if (rule != null) {
+			return List.of(new FieldError(
+					OBJECT_NAME,
+					property(index, rule.getProperty()),
+					rule.getValue(model),
+					false,
+					new String[]{rule.getCode().getCode()},
+					null,
+					null
+			));
+		}
+		return List.of();
+	}
+
+	@NonNull
+	private static String property(final int index, @NonNull final String field) {
+		return "[" + index + "]." + field;
+	}
+
+	public static final class Result {
+
+		private final int count;
+		private final Errors errors;
+
+		private Result(final int count, final Errors errors) {
+			this.count = count;
+			this.errors = errors;
+		}
+
+		/**
+		 * @return number of the validated items
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		@NonNull
+		public Errors getErrors() {
+			return errors;
+		}
+	}
+}
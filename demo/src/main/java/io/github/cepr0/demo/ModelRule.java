@@ -0,0 +1,84 @@
+package io.github.cepr0.demo;
+
+import io.github.cepr0.common.error.Rule;
+import io.github.cepr0.common.error.ValidationResult;
+import io.github.cepr0.common.message.MessageCode;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Business rules of the valid {@link Model}, in the order they are checked by {@link Application#post(Model)}
+ */
+@Getter
+public enum ModelRule implements Rule<Model> {
+
+	FORBIDDEN_ID("num", HttpStatus.FORBIDDEN, ErrorCode.MODEL_FORBIDDEN_ID, model -> model.getNum() == 0),
+	SHORT_TEXT("text", HttpStatus.FORBIDDEN, ErrorCode.MODEL_SHORT_TEXT, model -> model.getText().length() < 4),
+	BIG_TEXT("text", HttpStatus.BAD_REQUEST, ErrorCode.MODEL_BIG_TEXT, model -> model.getText().length() > 4),
+	NEGATIVE_NUM("num", HttpStatus.BAD_REQUEST, ErrorCode.REQUEST_NUM_NEGATIVE, model -> model.getNum() < 0),
+	BIG_NUM("num", HttpStatus.BAD_REQUEST, ErrorCode.MODEL_BIG_NUM, model -> model.getNum() > 10);
+
+	/**
+	 * All rules in the order they are checked
+	 */
+	public static final Rule<Model> ALL = Rule.allOf(List.of(values()));
+
+	/**
+	 * Model property the rule is checking
+	 */
+	private final String property;
+
+	/**
+	 * Status of the error response on the rule violation
+	 */
+	private final HttpStatus httpStatus;
+
+	/**
+	 * Message code of the rule violation
+	 */
+	private final MessageCode.Args0 code;
+
+	private final Predicate<Model> violation;
+	private final ValidationResult<Model> failure;
+
+	ModelRule(final String property, final HttpStatus httpStatus, final MessageCode.Args0 code, final Predicate<Model> violation) {
+		this.property = property;
+		this.httpStatus = httpStatus;
+		this.code = code;
+		this.violation = violation;
+		this.failure = ValidationResult.invalid(httpStatus, code);
+	}
+
+	public boolean isViolatedBy(@NonNull final Model model) {
+		return violation.test(model);
+	}
+
+	@NonNull
+	@Override
+	public ValidationResult<Model> validate(@NonNull final Model model) {
+		return isViolatedBy(model) ? failure : ValidationResult.valid(model);
+	}
+
+	/**
+	 * @return the first rule violated by the given model, or null if the model satisfies all of them
+	 */
+	@Nullable
+	public static ModelRule firstViolatedBy(@NonNull final Model model) {
+		for (ModelRule rule : values()) {
+			if (rule.isViolatedBy(model)) {
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	public Object getValue(@NonNull final Model model) {
+		return "num".equals(property) ? model.getNum() : model.getText();
+	}
+}
@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Generates the message code catalogs from the message bundles. It's run by Maven in the 'generate-sources' phase:
+ * <pre>
+ * java src/build/ErrorCodeGenerator.java &lt;resources dir&gt; &lt;output dir&gt; &lt;bundle&gt;=&lt;class&gt;...
+ * </pre>
+ * For every bundle, e.g. 'messages=io.github.cepr0.demo.ErrorCode', reads 'messages.properties' and all its locales
+ * 'messages_*.properties', and generates the class with a {@code MessageCode} constant of each code,
+ * with the dense id and the number of the message arguments.
+ * <p/>
+ * Fails if a code is absent in any locale of the bundle, or the number of its arguments differs between the locales.
+ */
+public class ErrorCodeGenerator {
+
+	private static final String MESSAGE_PACKAGE = "io.github.cepr0.common.message";
+	private static final int MAX_TYPED_ARITY = 3;
+	private static final Pattern NUMERIC_ARG = Pattern.compile("\\{(\\d+)");
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: java ErrorCodeGenerator.java <resources dir> <output dir> <bundle>=<class>...");
+			System.exit(2);
+		}
+		Path resources = Paths.get(args[0]);
+		Path output = Paths.get(args[1]);
+
+		List<String> errors = new ArrayList<>();
+		for (int i = 2; i < args.length; i++) {
+			String[] mapping = args[i].split("=", 2);
+			generate(resources, output, mapping[0], mapping[1], errors);
+		}
+
+		if (!errors.isEmpty()) {
+			errors.forEach(e -> System.err.println("[ERROR] " + e));
+			System.exit(1);
+		}
+	}
+
+	private static void generate(Path resources, Path output, String bundle, String className, List<String> errors) throws IOException {
+		Map<String, Properties> locales = load(resources, bundle);
+		if (!locales.containsKey("")) {
+			errors.add("Bundle '" + bundle + "' is not found in " + resources);
+			return;
+		}
+
+		// code -> arity, in the order of the codes
+		Map<String, Integer> codes = new TreeMap<>();
+		TreeSet<String> allCodes = new TreeSet<>();
+		locales.values().forEach(messages -> allCodes.addAll(messages.stringPropertyNames()));
+
+		for (String code : allCodes) {
+			Integer arity = null;
+			for (Map.Entry<String, Properties> locale : locales.entrySet()) {
+				String file = fileName(bundle, locale.getKey());
+				String message = locale.getValue().getProperty(code);
+				if (message == null) {
+					errors.add(file + ": code '" + code + "' is absent");
+					continue;
+				}
+				int messageArity = arity(message);
+				if (arity == null) {
+					arity = messageArity;
+				} else if (arity != messageArity) {
+					errors.add(file + ": code '" + code + "' has " + messageArity + " arguments, other locales have " + arity);
+				}
+			}
+			codes.put(code, arity != null ? arity : 0);
+		}
+
+		Map<String, String> constants = new HashMap<>();
+		for (String code : codes.keySet()) {
+			String previous = constants.put(constantName(code), code);
+			if (previous != null) {
+				errors.add(bundle + ": codes '" + previous + "' and '" + code + "' have the same constant name " + constantName(code));
+			}
+		}
+
+		if (errors.isEmpty()) {
+			write(output, bundle, className, codes, locales.get(""));
+		}
+	}
+
+	private static Map<String, Properties> load(Path resources, String bundle) throws IOException {
+		Map<String, Properties> locales = new TreeMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(resources, bundle + "*.properties")) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				String suffix = name.substring(bundle.length(), name.length() - ".properties".length());
+				if (!suffix.isEmpty() && !suffix.startsWith("_")) {
+					continue; // another bundle with the same prefix
+				}
+				Properties messages = new Properties();
+				try (InputStream in = Files.newInputStream(file)) {
+					messages.load(in);
+				}
+				locales.put(suffix.isEmpty() ? "" : suffix.substring(1), messages);
+			}
+		}
+		return locales;
+	}
+
+	/**
+	 * @return number of the {@link MessageFormat} arguments of the message, the messages with named placeholders
+	 * like '{value}' are interpolated by the validator and have no arguments
+	 */
+	private static int arity(String message) {
+		try {
+			return new MessageFormat(message).getFormatsByArgumentIndex().length;
+		} catch (IllegalArgumentException e) {
+			int arity = 0;
+			Matcher matcher = NUMERIC_ARG.matcher(message);
+			while (matcher.find()) {
+				arity = Math.max(arity, Integer.parseInt(matcher.group(1)) + 1);
+			}
+			return arity;
+		}
+	}
+
+	/**
+	 * 'model.forbidden-id' -> MODEL_FORBIDDEN_ID, 'NotNull' -> NOT_NULL
+	 */
+	private static String constantName(String code) {
+		StringBuilder sb = new StringBuilder();
+		char prev = '_';
+		for (char c : code.toCharArray()) {
+			if (Character.isLetterOrDigit(c)) {
+				if (Character.isUpperCase(c) && Character.isLowerCase(prev)) {
+					sb.append('_');
+				}
+				sb.append(Character.toUpperCase(c));
+				prev = c;
+			} else if (prev != '_') {
+				sb.append('_');
+				prev = '_';
+			}
+		}
+		if (sb.length() == 0 || Character.isDigit(sb.charAt(0))) {
+			sb.insert(0, '_');
+		}
+		return sb.toString();
+	}
+
+	private static void write(Path output, String bundle, String className, Map<String, Integer> codes, Properties defaults) throws IOException {
+		int dot = className.lastIndexOf('.');
+		String packageName = className.substring(0, dot);
+		String simpleName = className.substring(dot + 1);
+
+		Path file = output.resolve(packageName.replace('.', '/')).resolve(simpleName + ".java");
+		Files.createDirectories(file.getParent());
+
+		try (Writer out = Files.newBufferedWriter(file, UTF_8)) {
+			out.write("package " + packageName + ";\n\n");
+			if (!packageName.equals(MESSAGE_PACKAGE)) {
+				out.write("import " + MESSAGE_PACKAGE + ".MessageCatalog;\n");
+				out.write("import " + MESSAGE_PACKAGE + ".MessageCode;\n\n");
+			}
+			out.write("/**\n * Message codes of the '" + bundle + "' bundle.\n");
+			out.write(" * Generated from the bundle by 'src/build/ErrorCodeGenerator.java', don't edit.\n */\n");
+			out.write("public final class " + simpleName + " {\n\n");
+			out.write("\tpublic static final MessageCatalog CATALOG = new MessageCatalog(\"" + bundle + "\", " + codes.size() + ");\n");
+
+			int id = 0;
+			for (Map.Entry<String, Integer> entry : codes.entrySet()) {
+				String code = entry.getKey();
+				int arity = entry.getValue();
+				out.write("\n\t/**\n\t * " + javadoc(defaults.getProperty(code)) + "\n\t */\n");
+				if (arity <= MAX_TYPED_ARITY) {
+					String type = "MessageCode.Args" + arity;
+					out.write("\tpublic static final " + type + " " + constantName(code)
+							+ " = new " + type + "(CATALOG, " + id + ", \"" + java(code) + "\");\n");
+				} else {
+					out.write("\tpublic static final MessageCode " + constantName(code)
+							+ " = new MessageCode(CATALOG, " + id + ", \"" + java(code) + "\", " + arity + ");\n");
+				}
+				id++;
+			}
+
+			out.write("\n\tprivate " + simpleName + "() {\n\t}\n}\n");
+		}
+	}
+
+	private static String java(String s) {
+		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private static String javadoc(String s) {
+		return s.replace("*/", "*&#47;").replace("@", "&#64;").replace("\n", " ");
+	}
+
+	private static String fileName(String bundle, String locale) {
+		return bundle + (locale.isEmpty() ? "" : "_" + locale) + ".properties";
+	}
+}
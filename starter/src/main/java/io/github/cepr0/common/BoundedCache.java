@@ -0,0 +1,117 @@
+package io.github.cepr0.common;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Concurrent cache of a bounded size, which evicts the entries that are not used recently when it's full,
+ * so the values of the keys sent once, e.g. the junk header values, don't stop it from caching the ones used again.
+ * <p/>
+ * A hit is a hash map read and, for the entry which is not marked as used yet, a write of the flag, so the hits
+ * take no locks. The entries are evicted in the 'second chance' order: the eviction scans the entries from where
+ * it stopped last time, clears the flags of the used ones and removes the first unused one. A new entry is not
+ * marked, so it survives the eviction only if it's used again.
+ */
+public final class BoundedCache<K, V> {
+
+	private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+	private final int maxSize;
+
+	/**
+	 * Position of the eviction, guarded by the cache itself
+	 */
+	private Iterator<Node<V>> hand;
+
+	public BoundedCache(final int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Max size must be positive");
+		}
+		this.maxSize = maxSize;
+	}
+
+	@Nullable
+	public V get(@NonNull final K key) {
+		Node<V> node = entries.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (!node.used) {
+			node.used = true;
+		}
+		return node.value;
+	}
+
+	/**
+	 * Adds the value if there is no value of the key, and evicts an entry if the cache is full
+	 */
+	public void put(@NonNull final K key, @NonNull final V value) {
+		if (entries.putIfAbsent(key, new Node<>(value)) == null && entries.size() > maxSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * @return the value of the key, or the value computed and added if there is none, an entry is evicted if the cache is full
+	 */
+	@NonNull
+	public V computeIfAbsent(@NonNull final K key, @NonNull final Function<? super K, ? extends V> mapping) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+		Node<V> node = entries.computeIfAbsent(key, k -> new Node<>(mapping.apply(k)));
+		if (entries.size() > maxSize) {
+			evict();
+		}
+		return node.value;
+	}
+
+	/**
+	 * Performs the action for each entry without marking it as used
+	 */
+	public void forEach(@NonNull final BiConsumer<? super K, ? super V> action) {
+		entries.forEach((key, node) -> action.accept(key, node.value));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private synchronized void evict() {
+		while (entries.size() > maxSize) {
+			if (hand == null || !hand.hasNext()) {
+				hand = entries.values().iterator();
+				if (!hand.hasNext()) {
+					return;
+				}
+			}
+			Node<V> node = hand.next();
+			if (node.used) {
+				node.used = false;
+			} else {
+				hand.remove();
+			}
+		}
+	}
+
+	private static final class Node<V> {
+		private final V value;
+		private volatile boolean used;
+
+		private Node(final V value) {
+			this.value = value;
+		}
+	}
+}
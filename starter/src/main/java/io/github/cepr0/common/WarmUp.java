@@ -0,0 +1,172 @@
+package io.github.cepr0.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.error.ApiErrorMessage;
+import io.github.cepr0.common.error.ErrorFormat;
+import io.github.cepr0.common.error.ErrorResponseRenderer;
+import io.github.cepr0.common.message.MessageProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Does the lazy initialization of the error handling before the application starts serving requests,
+ * so the first requests are not slower than the next ones:
+ * <ul>
+ *     <li>loads the message bundles and caches their messages for the default and the configured locales;</li>
+ *     <li>builds the validator metadata of the {@code @Valid @RequestBody} types of the request mappings;</li>
+ *     <li>builds the serializers of the error bodies.</li>
+ * </ul>
+ * The warm-up runs on {@link ContextRefreshedEvent}, which is published before the embedded server is started.
+ * It's turned on with {@code warm-up.enabled=true}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(RequestMappingHandlerMapping.class)
+@ConditionalOnProperty(name = "warm-up.enabled", havingValue = "true")
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUp {
+
+	private final WarmUpProperties props;
+	private final MessageProvider mp;
+	private final LocalValidatorFactoryBean validator;
+	private final ErrorResponseRenderer renderer;
+	private final ObjectMapper objectMapper;
+	private final AtomicBoolean done = new AtomicBoolean();
+
+	public WarmUp(
+			final WarmUpProperties props,
+			final MessageProvider mp,
+			final LocalValidatorFactoryBean validator,
+			final ErrorResponseRenderer renderer,
+			final ObjectMapper objectMapper
+	) {
+		this.props = props;
+		this.mp = mp;
+		this.validator = validator;
+		this.renderer = renderer;
+		this.objectMapper = objectMapper;
+	}
+
+	@EventListener
+	public void onContextRefreshed(@NonNull final ContextRefreshedEvent event) {
+		if (!done.compareAndSet(false, true)) {
+			return; // refresh of a child context
+		}
+		long start = System.nanoTime();
+		int messages = warmUpMessages();
+		int types = warmUpValidator(event.getApplicationContext());
+		warmUpSerializers();
+		log.info("[i] Warm-up is done in {} ms: {} messages, {} validated types",
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), messages, types);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private int warmUpMessages() {
+		Set<Locale> locales = new LinkedHashSet<>();
+		locales.add(Locale.getDefault());
+		locales.addAll(props.getLocales());
+
+		int count = 0;
+		for (Locale locale : locales) {
+			for (String basename : props.getBasenames()) {
+				ResourceBundle bundle;
+				try {
+					bundle = ResourceBundle.getBundle(basename, locale);
+				} catch (MissingResourceException e) {
+					log.warn("[w] Message bundle '{}' is not found", basename);
+					continue;
+				}
+				for (String code : bundle.keySet()) {
+					mp.findMessage(code, locale);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	private int warmUpValidator(@NonNull final ApplicationContext context) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+			for (HandlerMethod method : mapping.getHandlerMethods().values()) {
+				for (MethodParameter parameter : method.getMethodParameters()) {
+					if (parameter.hasParameterAnnotation(RequestBody.class) && isValidated(parameter)) {
+						types.add(parameter.getParameterType());
+					}
+				}
+			}
+		}
+
+		for (Class<?> type : types) {
+			validator.getConstraintsForClass(type);
+			try {
+				// initializes the constraint validators and the message interpolation of the empty instance
+				validator.validate(BeanUtils.instantiateClass(type));
+			} catch (RuntimeException e) {
+				log.debug("[d] Type {} is not validated on warm-up: {}", type.getName(), e.toString());
+			}
+		}
+		return types.size();
+	}
+
+	private void warmUpSerializers() {
+		var errorMessage = ApiErrorMessage.builder()
+				.httpStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+				.message("Warm-up")
+				.path("/")
+				.build()
+				.addError(ApiErrorMessage.Error.of("Warm-up", "object", "property", "value"));
+		for (ErrorFormat format : ErrorFormat.values()) {
+			if (renderer.supports(format)) {
+				renderer.render(errorMessage, format);
+			}
+		}
+		try {
+			objectMapper.writerFor(ApiErrorMessage.class).writeValueAsBytes(errorMessage);
+		} catch (JsonProcessingException e) {
+			log.warn("[w] Error serializer is not warmed up: {}", e.toString());
+		}
+	}
+
+	/**
+	 * @return true if the parameter is validated by Spring MVC - it's annotated with {@code @Validated} or {@code @Valid*}
+	 */
+	private static boolean isValidated(@NonNull final MethodParameter parameter) {
+		for (Annotation annotation : parameter.getParameterAnnotations()) {
+			if (annotation instanceof Validated || annotation.annotationType().getSimpleName().startsWith("Valid")) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
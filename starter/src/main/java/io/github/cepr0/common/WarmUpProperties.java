@@ -0,0 +1,31 @@
+package io.github.cepr0.common;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Warm-up settings, bound to the {@code warm-up.*} properties.
+ */
+@Data
+@ConfigurationProperties("warm-up")
+public class WarmUpProperties {
+
+	/**
+	 * Warm up the error handling before the application starts serving requests
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Locales of the pre-loaded messages, in addition to the default one
+	 */
+	private List<Locale> locales = new ArrayList<>();
+
+	/**
+	 * Base names of the pre-loaded message bundles
+	 */
+	private List<String> basenames = new ArrayList<>(List.of("messages", "common-messages"));
+}
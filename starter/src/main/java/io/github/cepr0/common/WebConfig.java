@@ -0,0 +1,34 @@
+package io.github.cepr0.common;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(WebMvcConfigurer.class)
+@ConditionalOnBean(LocalValidatorFactoryBean.class)
+@AutoConfigureAfter(ValidationAutoConfiguration.class)
+public class WebConfig {
+	@Bean
+	public WebMvcConfigurer webMvcConfigurer(LocalValidatorFactoryBean validatorFactoryBean, HierarchicalMessageSource messageSource) {
+		// wire the message source once, when the configurer is created, not on every getValidator() call
+		validatorFactoryBean.setValidationMessageSource(messageSource);
+		return new WebMvcConfigurer() {
+			@Override
+			public Validator getValidator() {
+				return validatorFactoryBean;
+			}
+		};
+	}
+}
@@ -9,12 +9,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Function;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 
@@ -43,7 +41,9 @@ import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
  *    ]
  * }
  * </pre>
- *
+ * If the path is not given, it's taken from the {@link ErrorContext}, so the error can be built outside the request thread.
+ * When the error is written by {@link ApiErrorMessageWriter}, the number of the sub-errors which didn't fit
+ * the payload budget is rendered as {@code "truncated": 250}.
  */
 @JsonInclude(NON_EMPTY)
 @JsonPropertyOrder({"timestamp", "status", "error", "message", "path", "errors"})
@@ -81,7 +81,7 @@ public class ApiErrorMessage {
 	/**
 	 * Collection of detailed sub-errors, for example, validation error of the request body specific field
 	 */
-	private Collection<Error> errors = new ArrayList<>();
+	private SubErrors errors = new SubErrors();
 
 	@Builder
 	private ApiErrorMessage(final Instant timestamp, final HttpStatus httpStatus, final String message, final String path) {
@@ -90,7 +90,17 @@ public class ApiErrorMessage {
 		this.status = this.httpStatus.value();
 		this.error = this.httpStatus.getReasonPhrase();
 		this.message = message;
-		this.path = path != null ? path : ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest().getRequestURI();
+		this.path = path != null ? path : ErrorContext.currentPath();
+	}
+
+	/**
+	 * @return the copy of this error with the given path
+	 */
+	@NonNull
+	ApiErrorMessage withPath(@NonNull final String path) {
+		var copy = new ApiErrorMessage(timestamp, httpStatus, message, path);
+		copy.errors.addAll(errors);
+		return copy;
 	}
 
 	@NonNull
@@ -99,6 +109,16 @@ public class ApiErrorMessage {
 		return this;
 	}
 
+	/**
+	 * Adds the sub-errors which are built from the given source elements only when they are written,
+	 * see {@link SubErrors#addDeferred(Collection, Function)}
+	 */
+	@NonNull
+	public <T> ApiErrorMessage addErrors(@NonNull final Collection<? extends T> source, @NonNull final Function<? super T, Error> builder) {
+		errors.addDeferred(source, builder);
+		return this;
+	}
+
 	@NonNull
 	public static ApiErrorMessage internalServerError(@NonNull final String message) {
 		return ApiErrorMessage.builder()
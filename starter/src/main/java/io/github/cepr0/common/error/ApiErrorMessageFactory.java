@@ -0,0 +1,98 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.CommonErrorCode;
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.validation.ObjectError;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Path;
+import java.util.List;
+
+/**
+ * Builds the {@link ApiErrorMessage}s of the built-in handled exceptions, shared by the servlet and reactive handlers.
+ * Messages are resolved in the locale of {@link org.springframework.context.i18n.LocaleContextHolder},
+ * the path is taken from the arguments. The phases of the building are marked in the given metric samples.
+ * <p/>
+ * The sub-errors are deferred: they are built, and their messages resolved, when they are written to the response,
+ * so only the sub-errors which fit the payload budget are built, and their cost falls into the serialization phase.
+ */
+public class ApiErrorMessageFactory {
+
+	public static final String VALIDATION_FAILED = CommonErrorCode.VALIDATION_FAILED.getCode();
+
+	private final MessageProvider mp;
+
+	public ApiErrorMessageFactory(final MessageProvider mp) {
+		this.mp = mp;
+	}
+
+	@NonNull
+	public ApiErrorMessage apiError(@NonNull final ApiException ex, @Nullable final String path, @NonNull final ErrorMetrics.Sample sample) {
+		var message = ex.getLocalizedMessage();
+		sample.resolved();
+		var errorMessage = ApiErrorMessage.builder()
+				.httpStatus(ex.getHttpStatus())
+				.message(message)
+				.path(path)
+				.build();
+		sample.built();
+		return errorMessage;
+	}
+
+	@NonNull
+	public ApiErrorMessage constraintViolations(@NonNull final ConstraintViolationException ex, @Nullable final String path, @NonNull final ErrorMetrics.Sample sample) {
+		var message = mp.getLocalizedMessage(CommonErrorCode.VALIDATION_FAILED);
+		sample.resolved();
+
+		var errorMessage = validationFailed(message, path).addErrors(ex.getConstraintViolations(), violation -> ApiErrorMessage.Error.of(
+				mp.getLocalizedMessage(violation.getMessage()),
+				violation.getRootBeanClass().getSimpleName(),
+				leafNode(violation.getPropertyPath()),
+				violation.getInvalidValue()
+		));
+		sample.built();
+		return errorMessage;
+	}
+
+	/**
+	 * Builds the 'validation failed' error with the sub-errors of the given object errors
+	 */
+	@NonNull
+	public ApiErrorMessage objectErrors(@NonNull final List<ObjectError> errors, @Nullable final String path, @Nullable final ErrorMetrics.Sample sample) {
+		var message = mp.getLocalizedMessage(CommonErrorCode.VALIDATION_FAILED);
+		if (sample != null) {
+			sample.resolved();
+		}
+
+		var errorMessage = validationFailed(message, path)
+				.addErrors(errors, error -> ApiErrorMessage.Error.of(mp.getLocalizedMessage(error), error));
+		if (sample != null) {
+			sample.built();
+		}
+		return errorMessage;
+	}
+
+	/**
+	 * @return name of the last node of the path, e.g. 'text' of 'post.model.text', without relying on the provider implementation
+	 */
+	@Nullable
+	private static String leafNode(@NonNull final Path path) {
+		Path.Node leaf = null;
+		for (Path.Node node : path) {
+			leaf = node;
+		}
+		return leaf != null ? leaf.getName() : null;
+	}
+
+	@NonNull
+	private static ApiErrorMessage validationFailed(@NonNull final String message, @Nullable final String path) {
+		return ApiErrorMessage.builder()
+				.httpStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+				.message(message)
+				.path(path)
+				.build();
+	}
+}
@@ -0,0 +1,217 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.error.ApiErrorMessage.Error;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streaming writer of {@link ApiErrorMessage}s. Writes the same fields as Jackson does for the annotated class,
+ * but without reflection and within the payload budget:
+ * <ul>
+ *     <li>at most 'max-errors' sub-errors are written, the number of the rest is written to the 'truncated' field;</li>
+ *     <li>string invalid values are cut to 'max-value-length' chars;</li>
+ *     <li>non-scalar invalid values are written as their projections, e.g. "ArrayList[size=1000]".</li>
+ * </ul>
+ * The sub-errors are iterated while they are written, so the deferred ones are built only if they fit the budget.
+ * Timestamps and other scalar values are serialized with the application {@link ObjectMapper} to respect its settings.
+ * <p/>
+ * The writer can produce any format of the given {@link JsonFactory}, e.g. Smile or CBOR, and the RFC 7807 'problem'
+ * fields instead of the own ones: 'type', 'title', 'status', 'detail' and 'instance', followed by the 'timestamp'
+ * and 'errors' extensions.
+ */
+public final class ApiErrorMessageWriter {
+
+	private static final int INITIAL_SIZE = 512;
+	private static final String ELLIPSIS = "...";
+	private static final String PROBLEM_TYPE = "about:blank";
+
+	private final ObjectMapper objectMapper;
+	private final JsonFactory factory;
+	private final int maxErrors;
+	private final int maxValueLength;
+	private final boolean projectValues;
+	private final boolean problem;
+
+	public ApiErrorMessageWriter(final ObjectMapper objectMapper, final ApiErrorProperties.Payload payload) {
+		this(objectMapper, objectMapper.getFactory(), payload, false);
+	}
+
+	/**
+	 * @param factory factory of the generators of the output format
+	 * @param problem write the RFC 7807 problem fields
+	 */
+	public ApiErrorMessageWriter(final ObjectMapper objectMapper, final JsonFactory factory, final ApiErrorProperties.Payload payload, final boolean problem) {
+		this.objectMapper = objectMapper;
+		this.factory = factory;
+		this.maxErrors = payload.getMaxErrors();
+		this.maxValueLength = payload.getMaxValueLength();
+		this.projectValues = payload.isProjectValues();
+		this.problem = problem;
+	}
+
+	@NonNull
+	public byte[] write(@NonNull final ApiErrorMessage errorMessage) {
+		var out = new ByteArrayBuilder(INITIAL_SIZE);
+		try (JsonGenerator gen = factory.createGenerator(out, JsonEncoding.UTF8)) {
+			write(errorMessage, gen);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	public void write(@NonNull final ApiErrorMessage errorMessage, @NonNull final JsonGenerator gen) throws IOException {
+		gen.writeStartObject();
+		if (problem) {
+			gen.writeStringField("type", PROBLEM_TYPE);
+			writeString(gen, "title", errorMessage.getError());
+			gen.writeNumberField("status", errorMessage.getStatus());
+			writeString(gen, "detail", errorMessage.getMessage());
+			writeString(gen, "instance", errorMessage.getPath());
+			gen.writeFieldName("timestamp");
+			objectMapper.writeValue(gen, errorMessage.getTimestamp());
+		} else {
+			gen.writeFieldName("timestamp");
+			objectMapper.writeValue(gen, errorMessage.getTimestamp());
+			gen.writeNumberField("status", errorMessage.getStatus());
+			writeString(gen, "error", errorMessage.getError());
+			writeString(gen, "message", errorMessage.getMessage());
+			writeString(gen, "path", errorMessage.getPath());
+		}
+
+		SubErrors errors = errorMessage.getErrors();
+		if (!errors.isEmpty()) {
+			gen.writeArrayFieldStart("errors");
+			int written = 0;
+			Iterator<Error> it = errors.iterator();
+			while (written < maxErrors && it.hasNext()) {
+				writeError(gen, it.next());
+				written++;
+			}
+			gen.writeEndArray();
+
+			int truncated = errors.size() - written;
+			if (truncated > 0) {
+				gen.writeNumberField("truncated", truncated);
+			}
+		}
+		gen.writeEndObject();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private void writeError(@NonNull final JsonGenerator gen, @NonNull final Error error) throws IOException {
+		gen.writeStartObject();
+		writeString(gen, "message", error.getMessage());
+		writeString(gen, "object", error.getObject());
+		writeString(gen, "property", error.getProperty());
+		writeValue(gen, "invalidValue", error.getInvalidValue());
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Writes the value as Jackson would do with NON_EMPTY inclusion, unless the value exceeds the budget
+	 */
+	private void writeValue(@NonNull final JsonGenerator gen, @NonNull final String field, @Nullable final Object value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value instanceof CharSequence) {
+			writeString(gen, field, truncate(value.toString()));
+			return;
+		}
+		if (value instanceof Boolean) {
+			gen.writeBooleanField(field, (Boolean) value);
+			return;
+		}
+		if (isScalar(value)) {
+			gen.writeFieldName(field);
+			objectMapper.writeValue(gen, value);
+			return;
+		}
+		if (isEmpty(value)) {
+			return;
+		}
+		if (projectValues) {
+			gen.writeStringField(field, project(value));
+		} else {
+			gen.writeFieldName(field);
+			objectMapper.writeValue(gen, value);
+		}
+	}
+
+	private static void writeString(@NonNull final JsonGenerator gen, @NonNull final String field, @Nullable final String value) throws IOException {
+		if (value != null && !value.isEmpty()) {
+			gen.writeStringField(field, value);
+		}
+	}
+
+	@NonNull
+	private String truncate(@NonNull final String value) {
+		if (value.length() <= maxValueLength) {
+			return value;
+		}
+		int end = maxValueLength;
+		if (end > 0 && Character.isHighSurrogate(value.charAt(end - 1))) {
+			end--;
+		}
+		return value.substring(0, end) + ELLIPSIS;
+	}
+
+	private static boolean isScalar(@NonNull final Object value) {
+		return value instanceof Number
+				|| value instanceof Character
+				|| value instanceof Enum
+				|| value instanceof TemporalAccessor
+				|| value instanceof Date
+				|| value instanceof Calendar
+				|| value instanceof UUID;
+	}
+
+	private static boolean isEmpty(@NonNull final Object value) {
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).isEmpty();
+		}
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).isEmpty();
+		}
+		if (value.getClass().isArray()) {
+			return Array.getLength(value) == 0;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the short description of the value, e.g. 'ArrayList[size=1000]', 'int[1000]' or 'Person'
+	 */
+	@NonNull
+	private static String project(@NonNull final Object value) {
+		Class<?> type = value.getClass();
+		if (value instanceof Collection) {
+			return type.getSimpleName() + "[size=" + ((Collection<?>) value).size() + "]";
+		}
+		if (value instanceof Map) {
+			return type.getSimpleName() + "[size=" + ((Map<?, ?>) value).size() + "]";
+		}
+		if (type.isArray()) {
+			return type.getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+		}
+		return type.getSimpleName();
+	}
+}
@@ -0,0 +1,200 @@
+package io.github.cepr0.common.error;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error handling settings, bound to the {@code api-error.*} properties.
+ */
+@Data
+@ConfigurationProperties("api-error")
+public class ApiErrorProperties {
+
+	/**
+	 * Create {@link ApiException}s without a stack trace, unless they have a cause.
+	 * Can be overridden per call with {@link ApiExceptionFactory#stackless()} and {@link ApiExceptionFactory#withStackTrace()}.
+	 */
+	private boolean stackless = false;
+
+	private final ResponseCache responseCache = new ResponseCache();
+
+	private final Logging logging = new Logging();
+
+	private final Payload payload = new Payload();
+
+	private final Shedding shedding = new Shedding();
+
+	private final Recent recent = new Recent();
+
+	private final Unmapped unmapped = new Unmapped();
+
+	@Data
+	public static class ResponseCache {
+
+		/**
+		 * Render bodies of the errors with parameterless message codes from the {@link ErrorResponseCache}
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Max number of the cached (code, status, locale) entries
+		 */
+		private int maxSize = 256;
+	}
+
+	@Data
+	public static class Logging {
+
+		/**
+		 * Log errors asynchronously: the first occurrences of an error in full, then periodic summaries.
+		 * If false, every error is logged synchronously.
+		 */
+		private boolean deduplicate = true;
+
+		/**
+		 * Period of the summaries of the repeated errors
+		 */
+		private Duration window = Duration.ofSeconds(10);
+
+		/**
+		 * Number of the occurrences of an error which are logged in full before they are summarized
+		 */
+		private int defaultThreshold = 1;
+
+		/**
+		 * Thresholds per exception class name, e.g. 'api-error.logging.thresholds[java.lang.IllegalStateException]=5'
+		 */
+		private Map<String, Integer> thresholds = new HashMap<>();
+
+		/**
+		 * Max number of the tracked error fingerprints, the errors beyond it are only counted
+		 */
+		private int maxFingerprints = 1024;
+
+		/**
+		 * Max number of the errors waiting to be counted and logged, the errors beyond it are only counted as dropped
+		 */
+		private int queueCapacity = 1024;
+	}
+
+	@Data
+	public static class Payload {
+
+		/**
+		 * Max number of the sub-errors written to the response, the number of the rest is written to the 'truncated' field
+		 */
+		private int maxErrors = 100;
+
+		/**
+		 * Max length of the string invalid values, the longer ones are cut
+		 */
+		private int maxValueLength = 256;
+
+		/**
+		 * Write non-scalar invalid values (beans, collections, maps, arrays) as their short descriptions,
+		 * e.g. 'ArrayList[size=1000]', instead of serializing them
+		 */
+		private boolean projectValues = true;
+	}
+
+	@Data
+	public static class Shedding {
+
+		/**
+		 * Reject the requests of the routes which fail or are slow, until they recover, see {@link LoadShedder}
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Period of the sliding window of the route statistics
+		 */
+		private Duration window = Duration.ofSeconds(10);
+
+		/**
+		 * Number of the buckets of the sliding window, the oldest bucket is dropped as a whole
+		 */
+		private int buckets = 10;
+
+		/**
+		 * Min number of the requests in the window to evaluate the route
+		 */
+		private int minRequests = 20;
+
+		/**
+		 * Rate of the 5xx responses in the window which opens the route
+		 */
+		private double failureRate = 0.5;
+
+		/**
+		 * Duration of the request which is counted as slow
+		 */
+		private Duration slowRequest = Duration.ofSeconds(2);
+
+		/**
+		 * Rate of the slow requests in the window which opens the route
+		 */
+		private double slowRate = 0.8;
+
+		/**
+		 * Time the open route rejects the requests before the probes, it's also sent in the 'Retry-After' header
+		 */
+		private Duration openDuration = Duration.ofSeconds(5);
+
+		/**
+		 * Number of the successful probe requests which close the route, a failed probe opens it again
+		 */
+		private int probes = 5;
+
+		/**
+		 * Max number of the tracked routes, the requests of the routes beyond it are not shed
+		 */
+		private int maxRoutes = 1024;
+	}
+
+	@Data
+	public static class Recent {
+
+		/**
+		 * Keep the recent handled errors in memory and expose them with the 'errors' actuator endpoint, see {@link RecentErrors}
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Number of the kept errors, rounded up to a power of two, the oldest ones are overwritten
+		 */
+		private int capacity = 1024;
+
+		/**
+		 * Default window of the endpoint queries
+		 */
+		private Duration window = Duration.ofMinutes(5);
+
+		/**
+		 * Default number of the top fingerprints returned by the endpoint
+		 */
+		private int top = 10;
+
+		/**
+		 * Default number of the most recent errors returned by the endpoint
+		 */
+		private int samples = 20;
+	}
+
+	@Data
+	public static class Unmapped {
+
+		/**
+		 * Respond to the requests of the unmapped paths and methods before they are dispatched, see {@link UnmappedRequestFilter}
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Max age of the 404/405 responses in the shared caches, sent in the 'Cache-Control' header
+		 */
+		private Duration maxAge = Duration.ofHours(1);
+	}
+}
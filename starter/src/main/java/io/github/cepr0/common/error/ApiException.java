@@ -0,0 +1,137 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageCode;
+import io.github.cepr0.common.message.MessageProvider;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+
+public class ApiException extends RuntimeException {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	@Getter private final HttpStatus httpStatus;
+
+	/**
+	 * Message code (or message itself) of the exception if it was created by {@link ApiExceptionFactory}, otherwise null
+	 */
+	@Getter private final String code;
+
+	/**
+	 * Generated message code of the exception if it was created by {@link ApiExceptionFactory} with it, otherwise null
+	 */
+	@Getter private final transient MessageCode messageCode;
+	private final transient Object[] args;
+	private final transient MessageProvider mp;
+
+	private volatile String message;
+	private volatile String localizedMessage;
+
+	public ApiException(@NonNull final HttpStatus httpStatus, @NonNull final String message, @NonNull final String localizedMessage, @NonNull final Throwable cause) {
+		super(message, cause);
+		this.httpStatus = httpStatus;
+		this.code = null;
+		this.messageCode = null;
+		this.args = NO_ARGS;
+		this.mp = null;
+		this.message = message;
+		this.localizedMessage = localizedMessage;
+	}
+
+	public ApiException(@NonNull final HttpStatus httpStatus, @NonNull final String message, @NonNull final String localizedMessage) {
+		super(message);
+		this.httpStatus = httpStatus;
+		this.code = null;
+		this.messageCode = null;
+		this.args = NO_ARGS;
+		this.mp = null;
+		this.message = message;
+		this.localizedMessage = localizedMessage;
+	}
+
+	/**
+	 * Creates the exception without filling in its stack trace if {@code stackless} is true -
+	 * for expected errors, whose stack trace is never used, it's the most expensive part of the exception creation.
+	 */
+	public ApiException(@NonNull final HttpStatus httpStatus, @NonNull final String message, @NonNull final String localizedMessage, final boolean stackless) {
+		super(message, null, true, !stackless);
+		this.httpStatus = httpStatus;
+		this.code = null;
+		this.messageCode = null;
+		this.args = NO_ARGS;
+		this.mp = null;
+		this.message = message;
+		this.localizedMessage = localizedMessage;
+	}
+
+	/**
+	 * Creates the exception which messages are resolved from the code on the first access:
+	 * {@link #getMessage()} - in the default locale, {@link #getLocalizedMessage()} - in the user locale.
+	 * The stack trace is always filled in if the cause is not null.
+	 */
+	public ApiException(
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final MessageProvider mp,
+			@NonNull final String codeOrMessage,
+			@Nullable final Object[] args,
+			@Nullable final Throwable cause,
+			final boolean stackless
+	) {
+		super(null, cause, true, cause != null || !stackless);
+		this.httpStatus = httpStatus;
+		this.code = codeOrMessage;
+		this.messageCode = null;
+		this.args = args != null ? args : NO_ARGS;
+		this.mp = mp;
+	}
+
+	/**
+	 * Creates the exception which messages are resolved from the generated message code on the first access,
+	 * see {@link #ApiException(HttpStatus, MessageProvider, String, Object[], Throwable, boolean)}
+	 */
+	public ApiException(
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final MessageProvider mp,
+			@NonNull final MessageCode messageCode,
+			@Nullable final Object[] args,
+			@Nullable final Throwable cause,
+			final boolean stackless
+	) {
+		super(null, cause, true, cause != null || !stackless);
+		this.httpStatus = httpStatus;
+		this.code = messageCode.getCode();
+		this.messageCode = messageCode;
+		this.args = args != null ? args : NO_ARGS;
+		this.mp = mp;
+	}
+
+	/**
+	 * @return arguments of the message code
+	 */
+	@NonNull
+	public Object[] getArgs() {
+		return args;
+	}
+
+	@Override
+	public String getMessage() {
+		String result = message;
+		if (result == null && mp != null) {
+			result = messageCode != null ? mp.getMessage(messageCode, args) : mp.getMessage(code, args);
+			message = result;
+		}
+		return result;
+	}
+
+	@Override
+	public String getLocalizedMessage() {
+		String result = localizedMessage;
+		if (result == null && mp != null) {
+			result = messageCode != null ? mp.getLocalizedMessage(messageCode, args) : mp.getLocalizedMessage(code, args);
+			localizedMessage = result;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,222 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageCode;
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+
+public class ApiExceptionFactory {
+
+	private final MessageProvider mp;
+	private final boolean stackless;
+	private final ApiExceptionFactory sibling;
+
+	public ApiExceptionFactory(final MessageProvider mp, final ApiErrorProperties props) {
+		this(mp, props.isStackless(), null);
+	}
+
+	private ApiExceptionFactory(final MessageProvider mp, final boolean stackless, final ApiExceptionFactory sibling) {
+		this.mp = mp;
+		this.stackless = stackless;
+		this.sibling = sibling != null ? sibling : new ApiExceptionFactory(mp, !stackless, this);
+	}
+
+	/**
+	 * @return the factory which creates exceptions without a stack trace (unless a cause is supplied),
+	 * regardless of the 'api-error.stackless' property
+	 */
+	@NonNull
+	public ApiExceptionFactory stackless() {
+		return stackless ? this : sibling;
+	}
+
+	/**
+	 * @return the factory which creates exceptions with a stack trace, regardless of the 'api-error.stackless' property
+	 */
+	@NonNull
+	public ApiExceptionFactory withStackTrace() {
+		return stackless ? sibling : this;
+	}
+
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final String codeOrMessage, final Object... args) {
+		return new ApiException(httpStatus, mp, codeOrMessage, args, null, stackless);
+	}
+
+	public ApiException with(@NonNull final Throwable cause, @NonNull final HttpStatus httpStatus, @NonNull final String codeOrMessage, final Object... args) {
+		return new ApiException(httpStatus, mp, codeOrMessage, args, cause, false);
+	}
+
+	public ApiException notFound(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.NOT_FOUND, codeOrMessage, args);
+	}
+
+	public ApiException conflict(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.CONFLICT, codeOrMessage, args);
+	}
+
+	public ApiException badRequest(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.BAD_REQUEST, codeOrMessage, args);
+	}
+
+	public ApiException internalServerError(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.INTERNAL_SERVER_ERROR, codeOrMessage, args);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.UNPROCESSABLE_ENTITY, codeOrMessage, args);
+	}
+
+	public ApiException forbidden(@NonNull final String codeOrMessage, final Object... args) {
+		return with(HttpStatus.FORBIDDEN, codeOrMessage, args);
+	}
+
+	public ApiException notFound(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.NOT_FOUND, codeOrMessage, args);
+	}
+
+	public ApiException conflict(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.CONFLICT, codeOrMessage, args);
+	}
+
+	public ApiException badRequest(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.BAD_REQUEST, codeOrMessage, args);
+	}
+
+	public ApiException internalServerError(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.INTERNAL_SERVER_ERROR, codeOrMessage, args);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.UNPROCESSABLE_ENTITY, codeOrMessage, args);
+	}
+
+	public ApiException forbidden(@NonNull final Throwable cause, @NonNull final String codeOrMessage, final Object... args) {
+		return with(cause, HttpStatus.FORBIDDEN, codeOrMessage, args);
+	}
+
+// ====================================================================================================================
+// Generated message codes: the number of the arguments is checked at compile time, no varargs array is created
+
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode.Args0 code) {
+		return new ApiException(httpStatus, mp, code, null, null, stackless);
+	}
+
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode.Args1 code, final Object arg0) {
+		return new ApiException(httpStatus, mp, code, new Object[]{arg0}, null, stackless);
+	}
+
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return new ApiException(httpStatus, mp, code, new Object[]{arg0, arg1}, null, stackless);
+	}
+
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode.Args3 code, final Object arg0, final Object arg1, final Object arg2) {
+		return new ApiException(httpStatus, mp, code, new Object[]{arg0, arg1, arg2}, null, stackless);
+	}
+
+	/**
+	 * For the codes with more than 3 arguments
+	 */
+	public ApiException with(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode code, final Object... args) {
+		return new ApiException(httpStatus, mp, code, args, null, stackless);
+	}
+
+	public ApiException with(@NonNull final Throwable cause, @NonNull final HttpStatus httpStatus, @NonNull final MessageCode code, final Object... args) {
+		return new ApiException(httpStatus, mp, code, args, cause, false);
+	}
+
+	public ApiException notFound(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.NOT_FOUND, code);
+	}
+
+	public ApiException conflict(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.CONFLICT, code);
+	}
+
+	public ApiException badRequest(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.BAD_REQUEST, code);
+	}
+
+	public ApiException internalServerError(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.INTERNAL_SERVER_ERROR, code);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.UNPROCESSABLE_ENTITY, code);
+	}
+
+	public ApiException forbidden(@NonNull final MessageCode.Args0 code) {
+		return with(HttpStatus.FORBIDDEN, code);
+	}
+
+	public ApiException notFound(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.NOT_FOUND, code, arg0);
+	}
+
+	public ApiException conflict(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.CONFLICT, code, arg0);
+	}
+
+	public ApiException badRequest(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.BAD_REQUEST, code, arg0);
+	}
+
+	public ApiException internalServerError(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.INTERNAL_SERVER_ERROR, code, arg0);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.UNPROCESSABLE_ENTITY, code, arg0);
+	}
+
+	public ApiException forbidden(@NonNull final MessageCode.Args1 code, final Object arg0) {
+		return with(HttpStatus.FORBIDDEN, code, arg0);
+	}
+
+	public ApiException notFound(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.NOT_FOUND, code, arg0, arg1);
+	}
+
+	public ApiException conflict(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.CONFLICT, code, arg0, arg1);
+	}
+
+	public ApiException badRequest(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.BAD_REQUEST, code, arg0, arg1);
+	}
+
+	public ApiException internalServerError(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.INTERNAL_SERVER_ERROR, code, arg0, arg1);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.UNPROCESSABLE_ENTITY, code, arg0, arg1);
+	}
+
+	public ApiException forbidden(@NonNull final MessageCode.Args2 code, final Object arg0, final Object arg1) {
+		return with(HttpStatus.FORBIDDEN, code, arg0, arg1);
+	}
+
+	public ApiException notFound(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.NOT_FOUND, code, args);
+	}
+
+	public ApiException conflict(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.CONFLICT, code, args);
+	}
+
+	public ApiException badRequest(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.BAD_REQUEST, code, args);
+	}
+
+	public ApiException internalServerError(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.INTERNAL_SERVER_ERROR, code, args);
+	}
+
+	public ApiException unprocessableEntity(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.UNPROCESSABLE_ENTITY, code, args);
+	}
+
+	public ApiException forbidden(@NonNull final Throwable cause, @NonNull final MessageCode code, final Object... args) {
+		return with(cause, HttpStatus.FORBIDDEN, code, args);
+	}
+}
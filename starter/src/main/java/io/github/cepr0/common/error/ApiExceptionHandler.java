@@ -0,0 +1,24 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+
+import java.util.function.Function;
+
+/**
+ * Exception handler which is discovered as a Spring bean by the {@link ExceptionHandlerRegistry}.
+ * It handles the exceptions of the given type and its subtypes, if there is no more specific handler.
+ * When there are several handlers of the same type, the one with the highest priority wins.
+ *
+ * @param <T> exception type, can be an interface implemented by exceptions
+ */
+public interface ApiExceptionHandler<T> extends Function<T, ApiErrorMessage>, Ordered {
+
+	@NonNull
+	Class<T> getExceptionType();
+
+	@Override
+	default int getOrder() {
+		return LOWEST_PRECEDENCE;
+	}
+}
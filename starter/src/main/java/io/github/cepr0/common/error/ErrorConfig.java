@@ -0,0 +1,65 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.message.MessageConfig;
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The error handling beans shared by the servlet and reactive handlers. Each of them backs off
+ * when the application defines its own bean of the same type.
+ */
+@Configuration
+@ConditionalOnClass({ObjectMapper.class, MeterRegistry.class})
+@AutoConfigureAfter({JacksonAutoConfiguration.class, MessageConfig.class})
+@EnableConfigurationProperties(ApiErrorProperties.class)
+public class ErrorConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	ApiExceptionFactory apiExceptionFactory(MessageProvider mp, ApiErrorProperties props) {
+		return new ApiExceptionFactory(mp, props);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	ExceptionHandlerRegistry exceptionHandlerRegistry(ObjectProvider<ApiExceptionHandler<?>> handlerBeans) {
+		return new ExceptionHandlerRegistry(handlerBeans);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	ErrorResponseRenderer errorResponseRenderer(ObjectMapper objectMapper, ApiErrorProperties props) {
+		return new ErrorResponseRenderer(objectMapper, props);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	ErrorResponseCache errorResponseCache(MessageProvider mp, ObjectMapper objectMapper, ApiErrorProperties props) {
+		return new ErrorResponseCache(mp, objectMapper, props);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	ErrorLogger errorLogger(ApiErrorProperties props) {
+		return new ErrorLogger(props);
+	}
+
+	/**
+	 * Without the actuator the meters go to the global registry, which drops them unless a registry is added to it
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	ErrorMetrics errorMetrics(ObjectProvider<MeterRegistry> registry, MessageProvider mp) {
+		return new ErrorMetrics(registry.getIfAvailable(() -> Metrics.globalRegistry), mp);
+	}
+}
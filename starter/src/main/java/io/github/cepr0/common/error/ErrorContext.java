@@ -0,0 +1,151 @@
+package io.github.cepr0.common.error;
+
+import lombok.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Request path and locale of the errors, captured explicitly, so the errors can be built outside the request thread:
+ * in {@code CompletableFuture} stages, {@code DeferredResult} producers and {@code @Async} methods.
+ * <p/>
+ * The context is captured with {@link #current()} in the request thread and applied with {@code wrap(...)}
+ * to the task run by another thread: while the task runs, {@link ApiErrorMessage}s take the path from the context,
+ * and messages are resolved in its locale. Tasks of the application task executor are wrapped automatically,
+ * see {@link ErrorContextConfig}.
+ */
+@Value
+public class ErrorContext {
+
+	private static final ThreadLocal<ErrorContext> CURRENT = new NamedThreadLocal<>("Error context");
+
+	/**
+	 * Request path of the errors, null if it's unknown
+	 */
+	private String path;
+
+	private Locale locale;
+
+	@NonNull
+	public static ErrorContext of(@Nullable final String path, @NonNull final Locale locale) {
+		return new ErrorContext(path, locale);
+	}
+
+	/**
+	 * @return the context applied to the current thread by {@code wrap(...)},
+	 * otherwise the context of the current servlet request, if any
+	 */
+	@NonNull
+	public static ErrorContext current() {
+		ErrorContext context = CURRENT.get();
+		return context != null ? context : new ErrorContext(requestPath(), LocaleContextHolder.getLocale());
+	}
+
+	/**
+	 * @return request path of the current context, or null if there is no such context
+	 */
+	@Nullable
+	public static String currentPath() {
+		ErrorContext context = CURRENT.get();
+		return context != null ? context.path : requestPath();
+	}
+
+	@NonNull
+	public Runnable wrap(@NonNull final Runnable task) {
+		Callable<Void> wrapped = wrap((Callable<Void>) () -> {
+			task.run();
+			return null;
+		});
+		return () -> callUnchecked(wrapped);
+	}
+
+	@NonNull
+	public <T> Supplier<T> wrap(@NonNull final Supplier<T> task) {
+		Callable<T> wrapped = wrap((Callable<T>) task::get);
+		return () -> callUnchecked(wrapped);
+	}
+
+	/**
+	 * @return the task, which runs with the path and the locale of this context, then restores the previous ones
+	 */
+	@NonNull
+	public <T> Callable<T> wrap(@NonNull final Callable<T> task) {
+		return () -> {
+			ErrorContext previous = apply();
+			LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+			LocaleContextHolder.setLocale(locale);
+			try {
+				return task.call();
+			} finally {
+				restore(previous, previousLocale);
+			}
+		};
+	}
+
+	/**
+	 * @return the cause of the async wrapper ({@link CompletionException}, {@link ExecutionException}),
+	 * or the exception itself if it's not such a wrapper
+	 */
+	@NonNull
+	public static Throwable unwrap(@NonNull final Throwable ex) {
+		Throwable result = ex;
+		while ((result instanceof CompletionException || result instanceof ExecutionException)
+				&& result.getCause() != null) {
+			result = result.getCause();
+		}
+		return result;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@Nullable
+	private ErrorContext apply() {
+		ErrorContext previous = CURRENT.get();
+		CURRENT.set(this);
+		return previous;
+	}
+
+	/**
+	 * Calls the wrapped {@link Runnable} or {@link Supplier}, which can't throw checked exceptions
+	 */
+	private static <T> T callUnchecked(@NonNull final Callable<T> task) {
+		try {
+			return task.call();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void restore(@Nullable final ErrorContext previous, @Nullable final LocaleContext previousLocale) {
+		if (previous != null) {
+			CURRENT.set(previous);
+		} else {
+			CURRENT.remove();
+		}
+		LocaleContextHolder.setLocaleContext(previousLocale);
+	}
+
+	/**
+	 * @return URI of the current servlet request, or null if there is no such request (a reactive or a non-request thread)
+	 */
+	@Nullable
+	private static String requestPath() {
+		var attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes) {
+			return ((ServletRequestAttributes) attributes).getRequest().getRequestURI();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,20 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates the {@link ErrorContext} to the tasks of the application task executor, which runs
+ * {@code @Async} methods and the {@code Callable}s returned by the controllers
+ */
+@Configuration
+public class ErrorContextConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	TaskDecorator errorContextTaskDecorator() {
+		return task -> ErrorContext.current().wrap(task);
+	}
+}
@@ -0,0 +1,77 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * Fingerprint of an error - the hash of the class and the top stack frames of its most specific cause,
+ * and the message code. Errors of the same origin have the same fingerprint regardless of their messages.
+ */
+public final class ErrorFingerprint {
+
+	private static final int TOP_FRAMES = 3;
+
+	private ErrorFingerprint() {
+	}
+
+	public static long of(@NonNull final Throwable ex, @Nullable final String code) {
+		Throwable e = getMostSpecificCause(ex);
+		long hash = e.getClass().getName().hashCode();
+
+		StackTraceElement[] frames = e.getStackTrace();
+		for (int i = 0, n = Math.min(TOP_FRAMES, frames.length); i < n; i++) {
+			StackTraceElement frame = frames[i];
+			hash = 31 * hash + frame.getClassName().hashCode();
+			hash = 31 * hash + frame.getMethodName().hashCode();
+			hash = 31 * hash + frame.getLineNumber();
+		}
+
+		if (code != null) {
+			hash = 31 * hash + code.hashCode();
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * @param exception class name of the most specific cause of the error
+	 * @return coarse fingerprint of the exception class and the message code, which doesn't need the stack trace
+	 */
+	public static long of(@NonNull final String exception, @Nullable final String code) {
+		long hash = exception.hashCode();
+		if (code != null) {
+			hash = 31 * hash + code.hashCode();
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * @return human readable description of the error origin, e.g. 'java.lang.IllegalStateException[code] at Foo.bar(Foo.java:42)'
+	 */
+	@NonNull
+	public static String describe(@NonNull final Throwable ex, @Nullable final String code) {
+		Throwable e = getMostSpecificCause(ex);
+		StringBuilder sb = new StringBuilder(e.getClass().getName());
+		if (code != null) {
+			sb.append('[').append(code).append(']');
+		}
+		StackTraceElement[] frames = e.getStackTrace();
+		if (frames.length > 0) {
+			sb.append(" at ").append(frames[0]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Spreads the bits of the hash (the finalizer of MurmurHash3)
+	 */
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,37 @@
+package io.github.cepr0.common.error;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the error bodies, negotiated by {@link ErrorResponseRenderer} with the 'Accept' header of the request
+ */
+@Getter
+public enum ErrorFormat {
+
+	/**
+	 * The default format, see {@link ApiErrorMessage}
+	 */
+	JSON(MediaType.APPLICATION_JSON_UTF8),
+
+	/**
+	 * RFC 7807 problem details
+	 */
+	PROBLEM_JSON(MediaType.APPLICATION_PROBLEM_JSON_UTF8),
+
+	/**
+	 * Binary JSON of the Jackson Smile format
+	 */
+	SMILE(new MediaType("application", "x-jackson-smile")),
+
+	/**
+	 * Binary JSON of the CBOR format (RFC 7049)
+	 */
+	CBOR(new MediaType("application", "cbor"));
+
+	private final MediaType mediaType;
+
+	ErrorFormat(final MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+}
@@ -0,0 +1,262 @@
+package io.github.cepr0.common.error;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * Logger of the handled errors. Errors are grouped by their {@link ErrorFingerprint}: the first occurrences
+ * (up to the threshold of the exception type) are logged in full, the rest are only counted and reported
+ * in the periodic summaries - "X occurred N times in last 10s".
+ * <p/>
+ * The request thread only enqueues the error to the lock-free queue: the fingerprinting, counting, formatting
+ * and writing is done by the background thread, which owns the fingerprints, so no update of them is lost
+ * when the idle ones are forgotten. Memory is bounded by the max number of fingerprints and the queue capacity,
+ * the errors beyond them are only counted.
+ * <p/>
+ * If deduplication is turned off, every error is logged synchronously.
+ */
+public class ErrorLogger implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(ExceptionsHandler.class);
+
+	private static final long DRAIN_DELAY_MS = 100;
+
+	private final boolean deduplicate;
+	private final long windowMs;
+	private final int defaultThreshold;
+	private final Map<String, Integer> thresholds;
+	private final int maxFingerprints;
+	private final int queueCapacity;
+
+	/**
+	 * Accessed by the background thread only
+	 */
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private long overflowed;
+
+	private final Queue<Occurrence> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queueSize = new AtomicInteger();
+	private final LongAdder dropped = new LongAdder();
+	private final ScheduledExecutorService executor;
+
+	public ErrorLogger(final ApiErrorProperties props) {
+		var logging = props.getLogging();
+		this.deduplicate = logging.isDeduplicate();
+		this.windowMs = logging.getWindow().toMillis();
+		this.defaultThreshold = logging.getDefaultThreshold();
+		this.thresholds = Map.copyOf(logging.getThresholds());
+		this.maxFingerprints = logging.getMaxFingerprints();
+		this.queueCapacity = logging.getQueueCapacity();
+
+		if (deduplicate) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "error-logger");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this::drain, DRAIN_DELAY_MS, DRAIN_DELAY_MS, MILLISECONDS);
+			executor.scheduleAtFixedRate(this::summarize, windowMs, windowMs, MILLISECONDS);
+		} else {
+			executor = null;
+		}
+	}
+
+	/**
+	 * Logs the handled error of the request as a warning
+	 */
+	public void handled(@NonNull final Throwable ex, @Nullable final String code, @Nullable final Object method, @Nullable final String path) {
+		if (log.isWarnEnabled()) {
+			log(new Occurrence(Kind.HANDLED, ex, code, method, path));
+		}
+	}
+
+	/**
+	 * Logs the exception handled by the Spring MVC, which handling is not overridden
+	 */
+	public void notOverridden(@NonNull final Throwable ex, @Nullable final Object method, @Nullable final String path) {
+		if (log.isErrorEnabled()) {
+			log(new Occurrence(Kind.NOT_OVERRIDDEN, ex, null, method, path));
+		}
+	}
+
+	/**
+	 * Logs the unhandled exception of the request as an error with the stack trace
+	 */
+	public void unhandled(@NonNull final Throwable ex, @Nullable final Object method, @Nullable final String path) {
+		if (log.isErrorEnabled()) {
+			log(new Occurrence(Kind.UNHANDLED, ex, null, method, path));
+		}
+	}
+
+	/**
+	 * Stops the background thread, then logs the queued errors and the last summary
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		if (executor != null) {
+			executor.shutdownNow();
+			if (executor.awaitTermination(1, SECONDS)) {
+				drain();
+				summarize();
+			}
+		}
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private void log(@NonNull final Occurrence occurrence) {
+		if (!deduplicate) {
+			write(occurrence);
+			return;
+		}
+		if (queueSize.incrementAndGet() > queueCapacity) {
+			queueSize.decrementAndGet();
+			dropped.increment();
+			return;
+		}
+		queue.offer(occurrence);
+	}
+
+	private int threshold(@NonNull final Throwable ex) {
+		return thresholds.getOrDefault(ex.getClass().getName(), defaultThreshold);
+	}
+
+	private void drain() {
+		Occurrence occurrence;
+		while ((occurrence = queue.poll()) != null) {
+			queueSize.decrementAndGet();
+			try {
+				count(occurrence);
+			} catch (Exception e) {
+				log.error("[!] Failed to log the error", e);
+			}
+		}
+	}
+
+	/**
+	 * Counts the error by its fingerprint, and writes it if the threshold of the fingerprint is not reached yet
+	 */
+	private void count(@NonNull final Occurrence occurrence) {
+		long fingerprint = ErrorFingerprint.of(occurrence.ex, occurrence.code);
+		Entry entry = entries.get(fingerprint);
+		if (entry == null) {
+			if (entries.size() >= maxFingerprints) {
+				overflowed++;
+				return;
+			}
+			entry = new Entry(occurrence, threshold(occurrence.ex));
+			entries.put(fingerprint, entry);
+		}
+
+		entry.count++;
+		if (entry.logged < entry.threshold) {
+			entry.logged++;
+			write(occurrence);
+		} else {
+			entry.suppressed++;
+		}
+	}
+
+	/**
+	 * Reports the suppressed errors of the last window and forgets the errors which didn't occur during it
+	 */
+	private void summarize() {
+		long windowSec = MILLISECONDS.toSeconds(windowMs);
+		try {
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+				Entry entry = it.next();
+				if (entry.count == 0) {
+					it.remove();
+					continue;
+				}
+				if (entry.suppressed > 0) {
+					if (entry.kind == Kind.HANDLED) {
+						log.warn("[s] {} occurred {} times in last {}s", entry.description, entry.count, windowSec);
+					} else {
+						log.error("[s] {} occurred {} times in last {}s", entry.description, entry.count, windowSec);
+					}
+				}
+				entry.count = 0;
+				entry.suppressed = 0;
+			}
+
+			if (overflowed > 0) {
+				log.error("[s] {} errors occurred in last {}s were not logged: too many distinct errors", overflowed, windowSec);
+				overflowed = 0;
+			}
+			long drop = dropped.sumThenReset();
+			if (drop > 0) {
+				log.error("[s] {} errors occurred in last {}s were not logged: the log queue is full", drop, windowSec);
+			}
+		} catch (Exception e) {
+			log.error("[!] Failed to summarize the errors", e);
+		}
+	}
+
+	private static void write(@NonNull final Occurrence o) {
+		switch (o.kind) {
+			case HANDLED:
+				Throwable e = getMostSpecificCause(o.ex);
+				String cause = e.getCause() != null ? ". Cause: " + e.getCause().toString() : "";
+				log.warn("[w] Request {} {} : {}{}", o.method, o.path, e.getMessage(), cause);
+				break;
+			case NOT_OVERRIDDEN:
+				log.error("[!] Not overridden exception: {}", o.ex.toString());
+				break;
+			default:
+				log.error("[!] Unhandled exception: {}", getMostSpecificCause(o.ex).toString(), o.ex);
+		}
+	}
+
+	private enum Kind {
+		HANDLED, NOT_OVERRIDDEN, UNHANDLED
+	}
+
+	private static final class Occurrence {
+		private final Kind kind;
+		private final Throwable ex;
+		private final String code;
+		private final Object method;
+		private final String path;
+
+		private Occurrence(final Kind kind, final Throwable ex, final String code, final Object method, final String path) {
+			this.kind = kind;
+			this.ex = ex;
+			this.code = code;
+			this.method = method;
+			this.path = path;
+		}
+	}
+
+	private static final class Entry {
+		private final Kind kind;
+		private final String description;
+		private final int threshold;
+		private int logged;
+		private long count;
+		private long suppressed;
+
+		private Entry(final Occurrence occurrence, final int threshold) {
+			this.kind = occurrence.kind;
+			this.description = ErrorFingerprint.describe(occurrence.ex, occurrence.code);
+			this.threshold = threshold;
+		}
+	}
+}
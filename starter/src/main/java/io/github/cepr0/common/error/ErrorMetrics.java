@@ -0,0 +1,141 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the exception handlers:
+ * <ul>
+ *     <li>'api.errors' counter, tagged by 'exception' class, 'status', message 'code' and handler 'kind';</li>
+ *     <li>'api.errors.handling' timer, tagged by handler 'kind' and 'phase':
+ *     'resolution' of messages, 'body' construction, 'serialization' of the body and 'total' time in the handler.</li>
+ * </ul>
+ * Only the codes which are resolved by {@link MessageProvider} become tags, other messages are tagged as 'none',
+ * so the number of tags doesn't depend on the exception messages.
+ */
+public class ErrorMetrics {
+
+	private static final String ERRORS = "api.errors";
+	private static final String HANDLING = "api.errors.handling";
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+	private final MessageProvider mp;
+	private final Map<HandlerKind, Timers> timers = new EnumMap<>(HandlerKind.class);
+
+	public ErrorMetrics(final MeterRegistry registry, final MessageProvider mp) {
+		this.registry = registry;
+		this.mp = mp;
+		for (HandlerKind kind : HandlerKind.values()) {
+			timers.put(kind, new Timers(registry, kind));
+		}
+	}
+
+	/**
+	 * Starts the sample of the handling, which is recorded with {@link Sample#stop}
+	 */
+	@NonNull
+	public Sample start(@NonNull final HandlerKind kind) {
+		return new Sample(kind);
+	}
+
+	/**
+	 * Timing of one handling. The phases which are not marked are not recorded.
+	 */
+	public final class Sample {
+
+		private final HandlerKind kind;
+		private final long start;
+		private long resolved;
+		private long built;
+
+		private Sample(final HandlerKind kind) {
+			this.kind = kind;
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Marks the end of the message resolution phase
+		 */
+		public void resolved() {
+			resolved = System.nanoTime();
+		}
+
+		/**
+		 * Marks the end of the body construction phase
+		 */
+		public void built() {
+			built = System.nanoTime();
+		}
+
+		/**
+		 * Marks the end of the serialization phase and records the sample
+		 *
+		 * @param ex the handled exception, or null if the error is returned as a value, see {@link ValidationResult}
+		 */
+		public void stop(@Nullable final Throwable ex, @NonNull final HttpStatus httpStatus, @Nullable final String code) {
+			long end = System.nanoTime();
+			Timers t = timers.get(kind);
+			long phaseStart = start;
+			if (resolved != 0) {
+				t.resolution.record(resolved - phaseStart, TimeUnit.NANOSECONDS);
+				phaseStart = resolved;
+			}
+			if (built != 0) {
+				t.body.record(built - phaseStart, TimeUnit.NANOSECONDS);
+				phaseStart = built;
+			}
+			t.serialization.record(end - phaseStart, TimeUnit.NANOSECONDS);
+			t.total.record(end - start, TimeUnit.NANOSECONDS);
+
+			registry.counter(ERRORS,
+					"exception", ex != null ? ex.getClass().getName() : NONE,
+					"status", String.valueOf(httpStatus.value()),
+					"code", codeTag(code),
+					"kind", kind.getTag()
+			).increment();
+		}
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@NonNull
+	private String codeTag(@Nullable final String code) {
+		if (code == null || mp.findMessage(code, Locale.getDefault()) == null) {
+			return NONE;
+		}
+		return code;
+	}
+
+	private static final class Timers {
+		private final Timer resolution;
+		private final Timer body;
+		private final Timer serialization;
+		private final Timer total;
+
+		private Timers(final MeterRegistry registry, final HandlerKind kind) {
+			this.resolution = timer(registry, kind, "resolution");
+			this.body = timer(registry, kind, "body");
+			this.serialization = timer(registry, kind, "serialization");
+			this.total = timer(registry, kind, "total");
+		}
+
+		private static Timer timer(final MeterRegistry registry, final HandlerKind kind, final String phase) {
+			return Timer.builder(HANDLING)
+					.description("Time spent in the exception handlers")
+					.tag("kind", kind.getTag())
+					.tag("phase", phase)
+					.publishPercentileHistogram()
+					.register(registry);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.BoundedCache;
+import io.github.cepr0.common.message.MessageProvider;
+import io.github.cepr0.common.message.MessagesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cache of the pre-rendered JSON bodies of the {@link ApiErrorMessage}s without sub-errors, which messages are resolved
+ * from the codes without arguments. Only 'timestamp' and 'path' are spliced in when the body is rendered,
+ * so the result is the same as the {@link ApiErrorMessage} serialized by Jackson.
+ * The codes overridden by the tenant of the request are not served from the cache, and the codes which can't be
+ * resolved are not cached. When the cache is full, the bodies not used recently are evicted.
+ */
+@Slf4j
+public class ErrorResponseCache {
+
+	private static final byte[] HEAD = "{\"timestamp\":".getBytes(UTF_8);
+	private static final byte[] PATH = ",\"path\":\"".getBytes(UTF_8);
+	private static final byte[] TAIL = "\"}".getBytes(UTF_8);
+	private static final byte[] END = "}".getBytes(UTF_8);
+
+	private final BoundedCache<Key, byte[]> cache;
+	private final MessageProvider mp;
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+
+	public ErrorResponseCache(final MessageProvider mp, final ObjectMapper objectMapper, final ApiErrorProperties props) {
+		this.mp = mp;
+		this.objectMapper = objectMapper;
+		this.enabled = props.getResponseCache().isEnabled();
+		this.cache = new BoundedCache<>(props.getResponseCache().getMaxSize());
+	}
+
+	/**
+	 * Renders the JSON body of the error with the message resolved from the given code.
+	 *
+	 * @return the rendered body or null if the code can't be resolved to a message
+	 */
+	@Nullable
+	public byte[] render(
+			@NonNull final String code,
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final Locale locale,
+			@NonNull final Instant timestamp,
+			@Nullable final String path
+	) {
+		if (!enabled || mp.isOverridden(code, locale)) {
+			return null;
+		}
+
+		Key key = new Key(code, httpStatus, locale);
+		byte[] fields = cache.get(key);
+		if (fields == null) {
+			fields = renderFields(code, httpStatus, locale);
+			if (fields == null) {
+				return null;
+			}
+			cache.put(key, fields);
+		}
+
+		byte[] ts = renderTimestamp(timestamp);
+		byte[] p = path != null && !path.isEmpty() ? JsonStringEncoder.getInstance().quoteAsUTF8(path) : null;
+
+		int length = HEAD.length + ts.length + fields.length + (p != null ? PATH.length + p.length + TAIL.length : END.length);
+		byte[] body = new byte[length];
+		int pos = copy(HEAD, body, 0);
+		pos = copy(ts, body, pos);
+		pos = copy(fields, body, pos);
+		if (p != null) {
+			pos = copy(PATH, body, pos);
+			pos = copy(p, body, pos);
+			copy(TAIL, body, pos);
+		} else {
+			copy(END, body, pos);
+		}
+		return body;
+	}
+
+	@EventListener(MessagesChangedEvent.class)
+	public void invalidate() {
+		cache.clear();
+		log.debug("[d] Error response cache has been invalidated");
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Renders 'status', 'error' and 'message' fields in the order of {@link ApiErrorMessage}
+	 *
+	 * @return the rendered fields or null if the code can't be resolved to a message, so it's not cached
+	 */
+	@Nullable
+	private byte[] renderFields(@NonNull final String code, @NonNull final HttpStatus httpStatus, @NonNull final Locale locale) {
+		String message = mp.findMessage(code, locale);
+		if (message == null) {
+			return null;
+		}
+
+		JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+		StringBuilder sb = new StringBuilder(64)
+				.append(",\"status\":").append(httpStatus.value())
+				.append(",\"error\":\"").append(encoder.quoteAsString(httpStatus.getReasonPhrase())).append('"');
+		if (!message.isEmpty()) {
+			sb.append(",\"message\":\"").append(encoder.quoteAsString(message)).append('"');
+		}
+		return sb.toString().getBytes(UTF_8);
+	}
+
+	/**
+	 * Renders the timestamp with the application {@link ObjectMapper} to respect its date settings
+	 */
+	@NonNull
+	private byte[] renderTimestamp(@NonNull final Instant timestamp) {
+		try {
+			return objectMapper.writeValueAsBytes(timestamp);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static int copy(@NonNull final byte[] src, @NonNull final byte[] dest, final int pos) {
+		System.arraycopy(src, 0, dest, pos, src.length);
+		return pos + src.length;
+	}
+
+	private static final class Key {
+		private final String code;
+		private final HttpStatus httpStatus;
+		private final Locale locale;
+		private final int hash;
+
+		private Key(final String code, final HttpStatus httpStatus, final Locale locale) {
+			this.code = code;
+			this.httpStatus = httpStatus;
+			this.locale = locale;
+			this.hash = Objects.hash(code, httpStatus, locale);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return httpStatus == key.httpStatus && code.equals(key.code) && locale.equals(key.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cepr0.common.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes {@link ApiErrorMessage}s to the response bodies with {@link ApiErrorMessageWriter},
+ * so the serialization is done (and measured) inside the exception handlers.
+ * <p/>
+ * The format of the body is negotiated with the 'Accept' header of the request, see {@link ErrorFormat}:
+ * JSON unless the client explicitly prefers RFC 7807 problem JSON, Smile or CBOR. The binary formats are available
+ * if their Jackson modules are on the classpath. The writer of each format is built once, the negotiated formats
+ * are cached per 'Accept' header value.
+ */
+@Slf4j
+public class ErrorResponseRenderer {
+
+	private static final String SMILE_FACTORY = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+	private static final String CBOR_FACTORY = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
+	/**
+	 * Max number of the cached 'Accept' header values, the ones not used recently are evicted
+	 */
+	private static final int MAX_NEGOTIATED = 256;
+
+	private final Map<ErrorFormat, ApiErrorMessageWriter> writers = new EnumMap<>(ErrorFormat.class);
+	private final BoundedCache<String, ErrorFormat> negotiated = new BoundedCache<>(MAX_NEGOTIATED);
+
+	public ErrorResponseRenderer(final ObjectMapper objectMapper, final ApiErrorProperties props) {
+		var payload = props.getPayload();
+		writers.put(ErrorFormat.JSON, new ApiErrorMessageWriter(objectMapper, payload));
+		writers.put(ErrorFormat.PROBLEM_JSON, new ApiErrorMessageWriter(objectMapper, objectMapper.getFactory(), payload, true));
+
+		JsonFactory smile = binaryFactory(SMILE_FACTORY);
+		if (smile != null) {
+			writers.put(ErrorFormat.SMILE, new ApiErrorMessageWriter(objectMapper, smile, payload, false));
+		}
+		JsonFactory cbor = binaryFactory(CBOR_FACTORY);
+		if (cbor != null) {
+			writers.put(ErrorFormat.CBOR, new ApiErrorMessageWriter(objectMapper, cbor, payload, false));
+		}
+	}
+
+	@NonNull
+	public byte[] render(@NonNull final ApiErrorMessage errorMessage) {
+		return render(errorMessage, ErrorFormat.JSON);
+	}
+
+	@NonNull
+	public byte[] render(@NonNull final ApiErrorMessage errorMessage, @NonNull final ErrorFormat format) {
+		return writers.get(format).write(errorMessage);
+	}
+
+	@NonNull
+	public MediaType getContentType() {
+		return ErrorFormat.JSON.getMediaType();
+	}
+
+	/**
+	 * @param accept value of the 'Accept' header of the request
+	 * @return the available format which the client prefers, JSON by default
+	 */
+	@NonNull
+	public ErrorFormat negotiate(@Nullable final String accept) {
+		if (accept == null || accept.isEmpty()) {
+			return ErrorFormat.JSON;
+		}
+		ErrorFormat format = negotiated.get(accept);
+		if (format == null) {
+			format = select(accept);
+			negotiated.put(accept, format);
+		}
+		return format;
+	}
+
+	/**
+	 * @return true if the format is available
+	 */
+	public boolean supports(@NonNull final ErrorFormat format) {
+		return writers.containsKey(format);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@NonNull
+	private ErrorFormat select(@NonNull final String accept) {
+		List<MediaType> mediaTypes;
+		try {
+			mediaTypes = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return ErrorFormat.JSON;
+		}
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+		for (MediaType mediaType : mediaTypes) {
+			if (mediaType.getQualityValue() == 0) {
+				continue;
+			}
+			if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+				return ErrorFormat.JSON;
+			}
+			for (ErrorFormat format : writers.keySet()) {
+				if (format.getMediaType().isCompatibleWith(mediaType)) {
+					return format;
+				}
+			}
+		}
+		return ErrorFormat.JSON;
+	}
+
+	@Nullable
+	private static JsonFactory binaryFactory(@NonNull final String className) {
+		ClassLoader classLoader = ErrorResponseRenderer.class.getClassLoader();
+		if (!ClassUtils.isPresent(className, classLoader)) {
+			log.debug("[d] {} is not found, the format is not available", className);
+			return null;
+		}
+		try {
+			return (JsonFactory) ClassUtils.forName(className, classLoader).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to create " + className, e);
+		}
+	}
+}
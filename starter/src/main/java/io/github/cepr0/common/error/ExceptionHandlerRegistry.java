@@ -0,0 +1,148 @@
+package io.github.cepr0.common.error;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.core.Ordered.LOWEST_PRECEDENCE;
+
+/**
+ * Registry of the exception handlers. A handler is resolved by walking the superclass and then the interface hierarchy
+ * of the exception class, so the handler of the most specific type wins. The result is memoized per exception class.
+ * <p/>
+ * Handlers are added with {@link #addHandler} or discovered as {@link ApiExceptionHandler} beans until the context is refreshed.
+ * Then the registry is frozen, and further registrations are rejected.
+ */
+@Slf4j
+public class ExceptionHandlerRegistry implements ApplicationListener<ContextRefreshedEvent> {
+
+	private static final Function<Object, ApiErrorMessage> NO_HANDLER = ex -> null;
+
+	private final ObjectProvider<ApiExceptionHandler<?>> handlerBeans;
+
+	private final Map<Class<?>, Entry> registrations = new ConcurrentHashMap<>();
+	private volatile Map<Class<?>, Entry> frozen;
+
+	private final ClassValue<Function<Object, ApiErrorMessage>> resolved = new ClassValue<>() {
+		@Override
+		protected Function<Object, ApiErrorMessage> computeValue(final Class<?> type) {
+			Function<Object, ApiErrorMessage> handler = find(frozen, type);
+			return handler != null ? handler : NO_HANDLER;
+		}
+	};
+
+	public ExceptionHandlerRegistry(final ObjectProvider<ApiExceptionHandler<?>> handlerBeans) {
+		this.handlerBeans = handlerBeans;
+	}
+
+	/**
+	 * Adds the handler with the lowest priority. It replaces the previously added one of the same exception type.
+	 *
+	 * @throws IllegalStateException if the registry is already frozen
+	 */
+	public <T> void addHandler(@NonNull final Class<T> type, @NonNull final Function<T, ApiErrorMessage> handler) {
+		addHandler(type, handler, LOWEST_PRECEDENCE);
+	}
+
+	/**
+	 * Adds the handler with the given priority.
+	 * It replaces the previously added one of the same exception type if that one has the same or lower priority.
+	 *
+	 * @throws IllegalStateException if the registry is already frozen
+	 */
+	public <T> void addHandler(@NonNull final Class<T> type, @NonNull final Function<T, ApiErrorMessage> handler, final int order) {
+		if (frozen != null) {
+			throw new IllegalStateException("Exception handlers can't be added after the context is refreshed: " + type.getName());
+		}
+		//noinspection unchecked
+		var entry = new Entry((Function<Object, ApiErrorMessage>) handler, order);
+		registrations.merge(type, entry, (existing, added) -> added.order <= existing.order ? added : existing);
+	}
+
+	/**
+	 * @return the handler of the given exception class or its nearest supertype, or null if there is no such handler
+	 */
+	@Nullable
+	public Function<Object, ApiErrorMessage> get(@NonNull final Class<?> type) {
+		if (frozen == null) {
+			return find(registrations, type);
+		}
+		var handler = resolved.get(type);
+		return handler != NO_HANDLER ? handler : null;
+	}
+
+	public boolean isFrozen() {
+		return frozen != null;
+	}
+
+	@Override
+	public void onApplicationEvent(@NonNull final ContextRefreshedEvent event) {
+		if (frozen != null) {
+			return;
+		}
+		handlerBeans.orderedStream().forEach(handler -> addBean(handler));
+		frozen = new HashMap<>(registrations);
+		log.debug("[d] Exception handlers are frozen: {}", frozen.size());
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private <T> void addBean(@NonNull final ApiExceptionHandler<T> handler) {
+		addHandler(handler.getExceptionType(), handler, handler.getOrder());
+	}
+
+	@Nullable
+	private static Function<Object, ApiErrorMessage> find(@NonNull final Map<Class<?>, Entry> handlers, @NonNull final Class<?> type) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			var entry = handlers.get(c);
+			if (entry != null) {
+				return entry.handler;
+			}
+		}
+
+		// breadth-first over the interfaces, so the directly implemented ones win
+		Deque<Class<?>> queue = new ArrayDeque<>();
+		Set<Class<?>> visited = new HashSet<>();
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Class<?> i : c.getInterfaces()) {
+				queue.add(i);
+			}
+		}
+		while (!queue.isEmpty()) {
+			Class<?> i = queue.poll();
+			if (!visited.add(i)) {
+				continue;
+			}
+			var entry = handlers.get(i);
+			if (entry != null) {
+				return entry.handler;
+			}
+			for (Class<?> parent : i.getInterfaces()) {
+				queue.add(parent);
+			}
+		}
+		return null;
+	}
+
+	private static final class Entry {
+		private final Function<Object, ApiErrorMessage> handler;
+		private final int order;
+
+		private Entry(final Function<Object, ApiErrorMessage> handler, final int order) {
+			this.handler = handler;
+			this.order = order;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageCode;
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import javax.validation.ConstraintViolationException;
+import java.time.Instant;
+import java.util.function.Function;
+
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+import static org.springframework.core.Ordered.LOWEST_PRECEDENCE;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+@ControllerAdvice
+public class ExceptionsHandler extends ResponseEntityExceptionHandler {
+
+	private final ExceptionHandlerRegistry exceptionHandlers;
+	private final MessageProvider mp;
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final ErrorMetrics metrics;
+	private final ApiErrorMessageFactory errorMessages;
+	private final ErrorLogger errorLogger;
+	private final RecentErrors recentErrors;
+
+	public ExceptionsHandler(
+			final MessageProvider mp,
+			final ErrorResponseCache responseCache,
+			final ExceptionHandlerRegistry exceptionHandlers,
+			final ErrorResponseRenderer renderer,
+			final ErrorMetrics metrics,
+			final ErrorLogger errorLogger,
+			final RecentErrors recentErrors
+	) {
+		this.mp = mp;
+		this.responseCache = responseCache;
+		this.exceptionHandlers = exceptionHandlers;
+		this.renderer = renderer;
+		this.metrics = metrics;
+		this.errorMessages = new ApiErrorMessageFactory(mp);
+		this.errorLogger = errorLogger;
+		this.recentErrors = recentErrors;
+		initHandlers();
+	}
+
+	/**
+	 * Adds the handler of the given exception type and its subtypes, see {@link ExceptionHandlerRegistry#addHandler(Class, Function)}.
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final Function<E, ApiErrorMessage> handler) {
+		exceptionHandlers.addHandler(ex, handler);
+	}
+
+	/**
+	 * Adds the handler which renders the exception as the error with the given status and the message of the given code.
+	 * The body of such an error is rendered from the {@link ErrorResponseCache}.
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final HttpStatus httpStatus, final String code) {
+		exceptionHandlers.addHandler(ex, new StaticMessageHandler<>(httpStatus, code, mp));
+	}
+
+	/**
+	 * Adds the handler which renders the exception as the error with the given status and the message of the given code,
+	 * see {@link #addHandler(Class, HttpStatus, String)}
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final HttpStatus httpStatus, final MessageCode.Args0 code) {
+		addHandler(ex, httpStatus, code.getCode());
+	}
+
+// ====================================================================================================================
+
+	@NonNull
+	@Override
+	protected ResponseEntity<Object> handleExceptionInternal(
+			@NonNull final Exception ex,
+			final Object body,
+			final HttpHeaders headers,
+			final HttpStatus status,
+			@NonNull final WebRequest request
+	) {
+		var handler = exceptionHandlers.get(ex.getClass());
+		if (handler != null) {
+			logHandling(ex, codeOf(handler), (ServletWebRequest) request);
+			return handleMapped(ex, handler, headers, request);
+		}
+
+		var servletRequest = (ServletWebRequest) request;
+		errorLogger.notOverridden(ex, servletRequest.getHttpMethod(), servletRequest.getRequest().getRequestURI());
+		var sample = metrics.start(HandlerKind.NOT_OVERRIDDEN);
+		var errorMessage = ApiErrorMessage.builder()
+				.httpStatus(status)
+				.message(ex.getMessage())
+				.build();
+		sample.built();
+		return response(ex, errorMessage, null, headers, request, sample);
+	}
+
+	@Order(LOWEST_PRECEDENCE)
+	@ExceptionHandler(Exception.class)
+	ResponseEntity<?> handleException(Exception ex, ServletWebRequest request) {
+		Throwable cause = ErrorContext.unwrap(ex);
+		if (cause != ex && cause instanceof Exception) {
+			return handleUnwrapped((Exception) cause, request);
+		}
+
+		var handler = exceptionHandlers.get(ex.getClass());
+		if (handler != null) {
+			logHandling(ex, codeOf(handler), request);
+			return handleMapped(ex, handler, null, request);
+		}
+
+		errorLogger.unhandled(ex, request.getHttpMethod(), request.getRequest().getRequestURI());
+		var sample = metrics.start(HandlerKind.UNHANDLED);
+		var errorMessage = ApiErrorMessage.builder()
+				.httpStatus(INTERNAL_SERVER_ERROR)
+				.message(ex.getMessage())
+				.build();
+		sample.built();
+		return response(ex, errorMessage, null, null, request, sample);
+	}
+
+// ====================================================================================================================
+
+	@Order(HIGHEST_PRECEDENCE)
+	@ExceptionHandler(ApiException.class)
+	ResponseEntity<?> handleException(ApiException ex, ServletWebRequest request) {
+		markExpected(request, ex.getHttpStatus());
+		logHandling(ex, ex.getCode(), request);
+		var sample = metrics.start(HandlerKind.API);
+		if (ex.getCode() != null && ex.getArgs().length == 0) {
+			var response = cachedResponse(ex, null, ex.getHttpStatus(), ex.getCode(), request, sample);
+			if (response != null) {
+				return response;
+			}
+		}
+		var errorMessage = errorMessages.apiError(ex, request.getRequest().getRequestURI(), sample);
+		return response(ex, errorMessage, ex.getCode(), null, request, sample);
+	}
+
+	@Order(HIGHEST_PRECEDENCE)
+	@ExceptionHandler(ConstraintViolationException.class)
+	ResponseEntity<?> handleException(ConstraintViolationException ex, ServletWebRequest request) {
+		var sample = metrics.start(HandlerKind.CONSTRAINT_VIOLATION);
+		var errorMessage = errorMessages.constraintViolations(ex, request.getRequest().getRequestURI(), sample);
+		return response(ex, errorMessage, ApiErrorMessageFactory.VALIDATION_FAILED, null, request, sample);
+	}
+
+	@Order(HIGHEST_PRECEDENCE)
+	@ExceptionHandler(ValidationException.class)
+	ResponseEntity<?> handleException(ValidationException ex, ServletWebRequest request) {
+		markExpected(request, HttpStatus.UNPROCESSABLE_ENTITY);
+		logHandling(ex, ApiErrorMessageFactory.VALIDATION_FAILED, request);
+		var sample = metrics.start(HandlerKind.VALIDATION);
+		var errorMessage = errorMessages.objectErrors(ex.getErrors().getAllErrors(), request.getRequest().getRequestURI(), sample);
+		return response(ex, errorMessage, ApiErrorMessageFactory.VALIDATION_FAILED, null, request, sample);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The expected client errors are not the failures of the route, see {@link LoadSheddingFilter};
+	 * the expected errors with 5xx status are the server faults as well as the unexpected ones
+	 */
+	private static void markExpected(@NonNull final ServletWebRequest request, @NonNull final HttpStatus httpStatus) {
+		if (httpStatus.is4xxClientError()) {
+			request.getRequest().setAttribute(LoadSheddingFilter.EXPECTED_ERROR, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Handles the cause of the async wrapper (e.g. {@link java.util.concurrent.CompletionException}) as if it was thrown directly
+	 */
+	@NonNull
+	private ResponseEntity<?> handleUnwrapped(@NonNull final Exception ex, @NonNull final ServletWebRequest request) {
+		if (ex instanceof ApiException) {
+			return handleException((ApiException) ex, request);
+		}
+		if (ex instanceof ConstraintViolationException) {
+			return handleException((ConstraintViolationException) ex, request);
+		}
+		if (ex instanceof ValidationException) {
+			return handleException((ValidationException) ex, request);
+		}
+		return handleException(ex, request);
+	}
+
+	private void initHandlers() {
+		// MethodArgumentNotValidException
+		addHandler(MethodArgumentNotValidException.class, ex -> errorMessages.objectErrors(ex.getBindingResult().getAllErrors(), null, null));
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@NonNull
+	private ResponseEntity<Object> handleMapped(
+			@NonNull final Exception ex,
+			@NonNull final Function<Object, ApiErrorMessage> handler,
+			@Nullable final HttpHeaders headers,
+			@NonNull final WebRequest request
+	) {
+		var sample = metrics.start(HandlerKind.MAPPED);
+		String code = codeOf(handler);
+		if (handler instanceof StaticMessageHandler) {
+			var staticHandler = (StaticMessageHandler<?>) handler;
+			var response = cachedResponse(ex, headers, staticHandler.httpStatus, code, request, sample);
+			if (response != null) {
+				return response;
+			}
+		}
+		var errorMessage = handler.apply(ex);
+		sample.built();
+		return response(ex, errorMessage, code, headers, request, sample);
+	}
+
+	@NonNull
+	private ResponseEntity<Object> response(
+			@NonNull final Exception ex,
+			@NonNull final ApiErrorMessage errorMessage,
+			@Nullable final String code,
+			@Nullable final HttpHeaders headers,
+			@NonNull final WebRequest request,
+			@NonNull final ErrorMetrics.Sample sample
+	) {
+		ErrorFormat format = renderer.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		byte[] body = renderer.render(errorMessage, format);
+		sample.stop(ex, errorMessage.getHttpStatus(), code);
+		recentErrors.record(ex, errorMessage.getHttpStatus(), code, route(request));
+		return super.handleExceptionInternal(ex, body, responseHeaders(headers, format), errorMessage.getHttpStatus(), request);
+	}
+
+	/**
+	 * @return the response with the body rendered from the {@link ErrorResponseCache},
+	 * or null if the code can't be resolved or the client doesn't accept JSON
+	 */
+	@Nullable
+	private ResponseEntity<Object> cachedResponse(
+			@NonNull final Exception ex,
+			@Nullable final HttpHeaders headers,
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final String code,
+			@NonNull final WebRequest request,
+			@NonNull final ErrorMetrics.Sample sample
+	) {
+		if (renderer.negotiate(request.getHeader(HttpHeaders.ACCEPT)) != ErrorFormat.JSON) {
+			return null;
+		}
+		String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+		byte[] body = responseCache.render(code, httpStatus, mp.getLocale(), Instant.now(), path);
+		if (body == null) {
+			return null;
+		}
+		sample.stop(ex, httpStatus, code);
+		recentErrors.record(ex, httpStatus, code, route(request));
+		return super.handleExceptionInternal(ex, body, responseHeaders(headers, ErrorFormat.JSON), httpStatus, request);
+	}
+
+	@NonNull
+	private static HttpHeaders responseHeaders(@Nullable final HttpHeaders headers, @NonNull final ErrorFormat format) {
+		HttpHeaders responseHeaders = new HttpHeaders();
+		if (headers != null) {
+			responseHeaders.putAll(headers);
+		}
+		responseHeaders.setContentType(format.getMediaType());
+		return responseHeaders;
+	}
+
+	/**
+	 * @return the method and the mapping pattern of the request, or its path if it wasn't mapped, e.g. 'POST /demo/{id}'
+	 */
+	@NonNull
+	private static String route(@NonNull final WebRequest request) {
+		var servletRequest = ((ServletWebRequest) request).getRequest();
+		Object pattern = servletRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return servletRequest.getMethod() + " " + (pattern != null ? pattern : servletRequest.getRequestURI());
+	}
+
+	@Nullable
+	private static String codeOf(@NonNull final Function<?, ApiErrorMessage> handler) {
+		return handler instanceof StaticMessageHandler ? ((StaticMessageHandler<?>) handler).code : null;
+	}
+
+	private void logHandling(@NonNull final Exception ex, @Nullable final String code, @NonNull final ServletWebRequest request) {
+		errorLogger.handled(ex, code, request.getHttpMethod(), request.getRequest().getRequestURI());
+	}
+}
@@ -0,0 +1,22 @@
+package io.github.cepr0.common.error;
+
+import lombok.Getter;
+
+/**
+ * Kind of the exception handler path, used as a metric tag
+ */
+public enum HandlerKind {
+	API("api"),
+	CONSTRAINT_VIOLATION("constraint-violation"),
+	VALIDATION("validation"),
+	MAPPED("mapped"),
+	NOT_OVERRIDDEN("not-overridden"),
+	UNHANDLED("unhandled"),
+	RESULT("result");
+
+	@Getter private final String tag;
+
+	HandlerKind(final String tag) {
+		this.tag = tag;
+	}
+}
@@ -0,0 +1,265 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the paths and methods of the handler mappings, built once the mappings are registered.
+ * The paths without variables and wildcards are looked up in a hash map, only the patterns are matched one by one.
+ * <p/>
+ * The index is conservative: it tells that the path is not mapped only if it knows all the mappings.
+ * If a mapping can't be indexed (a custom {@link HandlerMapping}, a default handler or a mapping without patterns),
+ * the index is incomplete, and every path is treated as possibly mapped. The lookup path is also tried
+ * without the trailing slash and the extension, so the trailing slash and suffix pattern matches are never rejected.
+ * <p/>
+ * The index also resolves the route of a request before the dispatch: its method and the mapped path or the most
+ * specific mapped pattern, so the routes are bounded by the mappings, whatever the URIs of the requests are.
+ */
+final class HandlerMappingIndex {
+
+	/**
+	 * Index which knows nothing, e.g. before the mappings are registered
+	 */
+	static final HandlerMappingIndex INCOMPLETE = new HandlerMappingIndex(null, Map.of(), List.of());
+
+	private static final Set<RequestMethod> ALL_METHODS = Collections.unmodifiableSet(EnumSet.allOf(RequestMethod.class));
+
+	private final UrlPathHelper urlPathHelper;
+	private final Map<String, Set<RequestMethod>> paths;
+	private final List<Pattern> patterns;
+
+	private HandlerMappingIndex(
+			final UrlPathHelper urlPathHelper,
+			final Map<String, Set<RequestMethod>> paths,
+			final List<Pattern> patterns
+	) {
+		this.urlPathHelper = urlPathHelper;
+		this.paths = paths;
+		this.patterns = patterns;
+	}
+
+	@NonNull
+	static HandlerMappingIndex of(@NonNull final Collection<HandlerMapping> mappings) {
+		UrlPathHelper urlPathHelper = null;
+		var paths = new HashMap<String, Set<RequestMethod>>();
+		var patterns = new ArrayList<Pattern>();
+
+		for (HandlerMapping mapping : mappings) {
+			if (!(mapping instanceof AbstractHandlerMapping) || ((AbstractHandlerMapping) mapping).getDefaultHandler() != null) {
+				return INCOMPLETE;
+			}
+			var handlerMapping = (AbstractHandlerMapping) mapping;
+			if (urlPathHelper == null) {
+				urlPathHelper = handlerMapping.getUrlPathHelper();
+			}
+
+			if (mapping instanceof RequestMappingInfoHandlerMapping) {
+				for (RequestMappingInfo info : ((RequestMappingInfoHandlerMapping) mapping).getHandlerMethods().keySet()) {
+					Set<String> infoPatterns = info.getPatternsCondition().getPatterns();
+					if (infoPatterns.isEmpty()) {
+						return INCOMPLETE;
+					}
+					Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+					for (String pattern : infoPatterns) {
+						add(pattern, methods.isEmpty() ? ALL_METHODS : methods, handlerMapping.getPathMatcher(), paths, patterns);
+					}
+				}
+			} else if (mapping instanceof AbstractUrlHandlerMapping) {
+				var urlMapping = (AbstractUrlHandlerMapping) mapping;
+				if (urlMapping.getRootHandler() != null) {
+					add("/", ALL_METHODS, urlMapping.getPathMatcher(), paths, patterns);
+				}
+				for (String pattern : urlMapping.getHandlerMap().keySet()) {
+					add(pattern, ALL_METHODS, urlMapping.getPathMatcher(), paths, patterns);
+				}
+			} else {
+				return INCOMPLETE;
+			}
+		}
+
+		if (urlPathHelper == null) {
+			return INCOMPLETE;
+		}
+		return new HandlerMappingIndex(urlPathHelper, Map.copyOf(paths), List.copyOf(patterns));
+	}
+
+	/**
+	 * @return the index of the handler mappings of the context and its ancestors
+	 */
+	@NonNull
+	static HandlerMappingIndex of(@NonNull final ApplicationContext context) {
+		return of(BeanFactoryUtils.beansOfTypeIncludingAncestors(context, HandlerMapping.class, true, false).values());
+	}
+
+	boolean isComplete() {
+		return this != INCOMPLETE;
+	}
+
+	/**
+	 * @return the methods mapped to the path of the request, empty if the path is not mapped,
+	 * or null if it's unknown, e.g. the index is incomplete
+	 */
+	@Nullable
+	Set<RequestMethod> getMethods(@NonNull final HttpServletRequest request) {
+		if (!isComplete()) {
+			return null;
+		}
+		String path = urlPathHelper.getLookupPathForRequest(request);
+
+		Set<RequestMethod> methods = null;
+		for (String candidate : candidates(path)) {
+			methods = union(methods, paths.get(candidate));
+			for (Pattern pattern : patterns) {
+				if (pattern.matcher.match(pattern.pattern, candidate)) {
+					methods = union(methods, pattern.methods);
+				}
+			}
+			if (methods == ALL_METHODS) {
+				break;
+			}
+		}
+		return methods != null ? methods : Set.of();
+	}
+
+	/**
+	 * @return the route of the request, e.g. 'GET /users/{id}': the mapped path, otherwise the most specific
+	 * of the mapped patterns, or null if the path is not mapped to the method, or the index is incomplete
+	 */
+	@Nullable
+	String getRoute(@NonNull final HttpServletRequest request) {
+		if (!isComplete()) {
+			return null;
+		}
+		HttpMethod httpMethod = HttpMethod.resolve(request.getMethod());
+		if (httpMethod == null) {
+			return null;
+		}
+		RequestMethod method = RequestMethod.valueOf(httpMethod.name());
+		List<String> candidates = candidates(urlPathHelper.getLookupPathForRequest(request));
+
+		for (String candidate : candidates) {
+			if (allows(paths.get(candidate), method)) {
+				return method + " " + candidate;
+			}
+		}
+		for (String candidate : candidates) {
+			Pattern best = null;
+			Comparator<String> comparator = null;
+			for (Pattern pattern : patterns) {
+				if (allows(pattern.methods, method) && pattern.matcher.match(pattern.pattern, candidate)) {
+					if (best == null) {
+						best = pattern;
+					} else {
+						if (comparator == null) {
+							comparator = pattern.matcher.getPatternComparator(candidate);
+						}
+						if (comparator.compare(pattern.pattern, best.pattern) < 0) {
+							best = pattern;
+						}
+					}
+				}
+			}
+			if (best != null) {
+				return method + " " + best.pattern;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return number of the indexed paths and patterns
+	 */
+	int size() {
+		return paths.size() + patterns.size();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private static void add(
+			@NonNull final String pattern,
+			@NonNull final Set<RequestMethod> methods,
+			@NonNull final PathMatcher matcher,
+			@NonNull final Map<String, Set<RequestMethod>> paths,
+			@NonNull final List<Pattern> patterns
+	) {
+		if (matcher.isPattern(pattern) || pattern.indexOf('{') >= 0) { // URI variables are not a pattern for AntPathMatcher
+			patterns.add(new Pattern(pattern, methods, matcher));
+		} else {
+			paths.merge(pattern, methods, HandlerMappingIndex::union);
+		}
+	}
+
+	/**
+	 * HEAD is served by the GET mappings
+	 */
+	private static boolean allows(@Nullable final Set<RequestMethod> methods, @NonNull final RequestMethod method) {
+		return methods != null && (methods.contains(method) || (method == RequestMethod.HEAD && methods.contains(RequestMethod.GET)));
+	}
+
+	/**
+	 * @return the path, the path without the trailing slash and the path without the extension
+	 */
+	@NonNull
+	private static List<String> candidates(@NonNull final String path) {
+		var result = new ArrayList<String>(3);
+		result.add(path);
+		if (path.length() > 1 && path.endsWith("/")) {
+			result.add(path.substring(0, path.length() - 1));
+		}
+		int dot = path.lastIndexOf('.');
+		if (dot > path.lastIndexOf('/') + 1) {
+			result.add(path.substring(0, dot));
+		}
+		return result;
+	}
+
+	@Nullable
+	private static Set<RequestMethod> union(@Nullable final Set<RequestMethod> a, @Nullable final Set<RequestMethod> b) {
+		if (a == null || a.equals(b)) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		if (a == ALL_METHODS || b == ALL_METHODS) {
+			return ALL_METHODS;
+		}
+		var result = EnumSet.copyOf(a);
+		result.addAll(b);
+		return result.size() == ALL_METHODS.size() ? ALL_METHODS : Collections.unmodifiableSet(result);
+	}
+
+	private static final class Pattern {
+		private final String pattern;
+		private final Set<RequestMethod> methods;
+		private final PathMatcher matcher;
+
+		private Pattern(final String pattern, final Set<RequestMethod> methods, final PathMatcher matcher) {
+			this.pattern = pattern;
+			this.methods = methods;
+			this.matcher = matcher;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package io.github.cepr0.common.error;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive load shedding per route. The outcomes of the requests (5xx responses and slow requests) are counted
+ * lock-free in the sliding window of the route. When the failure or slow rate of the window crosses its threshold,
+ * the route is opened: its requests are rejected until the open duration elapses. Then the route is half-open:
+ * a limited number of probe requests is admitted, if they all succeed the route is closed, otherwise it's opened again.
+ */
+@Slf4j
+public class LoadShedder {
+
+	private final long bucketNanos;
+	private final int buckets;
+	private final int minRequests;
+	private final double failureRate;
+	private final long slowNanos;
+	private final double slowRate;
+	private final long openNanos;
+	private final int probes;
+	private final int maxRoutes;
+
+	private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+	public LoadShedder(@NonNull final ApiErrorProperties.Shedding props) {
+		this.buckets = props.getBuckets();
+		this.bucketNanos = props.getWindow().toNanos() / buckets;
+		this.minRequests = props.getMinRequests();
+		this.failureRate = props.getFailureRate();
+		this.slowNanos = props.getSlowRequest().toNanos();
+		this.slowRate = props.getSlowRate();
+		this.openNanos = props.getOpenDuration().toNanos();
+		this.probes = props.getProbes();
+		this.maxRoutes = props.getMaxRoutes();
+	}
+
+	/**
+	 * Admits the request of the route, or rejects it if the route is open
+	 *
+	 * @return the permit to be completed with {@link Permit#complete}, or null if the request is rejected
+	 */
+	@Nullable
+	public Permit acquire(@NonNull final String route) {
+		Route r = route(route);
+		if (r == null) {
+			return Permit.UNTRACKED;
+		}
+		return r.acquire(System.nanoTime());
+	}
+
+	/**
+	 * @return seconds until the route is probed, at least 1
+	 */
+	public long retryAfterSeconds(@NonNull final String route) {
+		Route r = routes.get(route);
+		long nanos = r != null ? Math.max(0, r.phase.get().openedAt + openNanos - System.nanoTime()) : 0;
+		return Math.max(1, (nanos + 999_999_999) / 1_000_000_000);
+	}
+
+	/**
+	 * @return the state of the route, or null if it's not tracked
+	 */
+	@Nullable
+	public State getState(@NonNull final String route) {
+		Route r = routes.get(route);
+		return r != null ? r.phase.get().state : null;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@Nullable
+	private Route route(@NonNull final String route) {
+		Route r = routes.get(route);
+		if (r == null) {
+			if (routes.size() >= maxRoutes) {
+				return null;
+			}
+			r = routes.computeIfAbsent(route, Route::new);
+		}
+		return r;
+	}
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/**
+	 * Permit of the admitted request, which records the outcome of the request
+	 */
+	public static class Permit {
+
+		private static final Permit UNTRACKED = new Permit(null, 0, null);
+
+		private final Route route;
+		private final long start;
+		private final Phase probe;
+
+		private Permit(final Route route, final long start, final Phase probe) {
+			this.route = route;
+			this.start = start;
+			this.probe = probe;
+		}
+
+		/**
+		 * Records the outcome of the request
+		 *
+		 * @param failed true if the request failed (e.g. it was responded with 5xx)
+		 */
+		public void complete(final boolean failed) {
+			if (route != null) {
+				route.complete(this, failed, System.nanoTime());
+			}
+		}
+	}
+
+	/**
+	 * State of the route with the time it was opened and the probes of the half-open one, replaced as a whole,
+	 * so the readers never see the new state with the probes or the open time of the previous one
+	 */
+	private static final class Phase {
+		private static final Phase CLOSED = new Phase(State.CLOSED, 0);
+
+		private final State state;
+		private final long openedAt;
+		private final AtomicInteger probePermits = new AtomicInteger();
+		private final AtomicInteger probeSuccesses = new AtomicInteger();
+
+		private Phase(final State state, final long openedAt) {
+			this.state = state;
+			this.openedAt = openedAt;
+		}
+	}
+
+	private final class Route {
+		private final String name;
+		private final Window window = new Window();
+		private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.CLOSED);
+
+		private Route(final String name) {
+			this.name = name;
+		}
+
+		@Nullable
+		private Permit acquire(final long now) {
+			Phase current = phase.get();
+			switch (current.state) {
+				case CLOSED:
+					return new Permit(this, now, null);
+				case OPEN:
+					if (now - current.openedAt < openNanos) {
+						return null;
+					}
+					Phase halfOpen = new Phase(State.HALF_OPEN, current.openedAt);
+					if (phase.compareAndSet(current, halfOpen)) {
+						log.info("[i] Route '{}' is half-open, probing it", name);
+						return acquireProbe(halfOpen, now);
+					}
+					return acquireProbe(phase.get(), now);
+				default:
+					return acquireProbe(current, now);
+			}
+		}
+
+		@Nullable
+		private Permit acquireProbe(@NonNull final Phase current, final long now) {
+			if (current.state != State.HALF_OPEN) {
+				return null;
+			}
+			int permits = current.probePermits.get();
+			while (permits < probes) {
+				if (current.probePermits.compareAndSet(permits, permits + 1)) {
+					return new Permit(this, now, current);
+				}
+				permits = current.probePermits.get();
+			}
+			return null;
+		}
+
+		private void complete(@NonNull final Permit permit, final boolean failed, final long now) {
+			long duration = now - permit.start;
+			boolean slow = duration >= slowNanos;
+
+			if (permit.probe != null) {
+				if (failed || slow) {
+					open(permit.probe, now, failed ? "the probe failed" : "the probe was slow");
+				} else if (permit.probe.probeSuccesses.incrementAndGet() >= probes && phase.compareAndSet(permit.probe, Phase.CLOSED)) {
+					window.reset();
+					log.info("[i] Route '{}' is closed, it has recovered", name);
+				}
+				return;
+			}
+
+			window.record(now, failed, slow);
+			if (failed || slow) {
+				Phase current = phase.get();
+				if (current.state == State.CLOSED) {
+					evaluate(current, now);
+				}
+			}
+		}
+
+		private void evaluate(@NonNull final Phase current, final long now) {
+			long[] counts = window.sum(now);
+			long requests = counts[0];
+			if (requests < minRequests) {
+				return;
+			}
+			double failures = (double) counts[1] / requests;
+			double slows = (double) counts[2] / requests;
+			if (failures >= failureRate) {
+				open(current, now, String.format("%.0f%% of %d requests failed", failures * 100, requests));
+			} else if (slows >= slowRate) {
+				open(current, now, String.format("%.0f%% of %d requests were slow", slows * 100, requests));
+			}
+		}
+
+		/**
+		 * Opens the route if it's still in the given phase, so a late outcome of a previous phase doesn't reopen it
+		 */
+		private void open(@NonNull final Phase current, final long now, @NonNull final String reason) {
+			if (phase.compareAndSet(current, new Phase(State.OPEN, now))) {
+				log.warn("[w] Route '{}' is open for {} ms: {}", name, openNanos / 1_000_000, reason);
+			}
+		}
+	}
+
+	/**
+	 * Sliding window of the request counts: the ring of the buckets, each one counts the requests of its period.
+	 * The bucket of the past period is reset by the first request of the new one.
+	 */
+	private final class Window {
+		private static final long EMPTY = Long.MIN_VALUE;
+
+		private final AtomicLong[] periods = new AtomicLong[buckets];
+		private final LongAdder[] requests = new LongAdder[buckets];
+		private final LongAdder[] failures = new LongAdder[buckets];
+		private final LongAdder[] slows = new LongAdder[buckets];
+
+		private Window() {
+			for (int i = 0; i < buckets; i++) {
+				periods[i] = new AtomicLong(EMPTY);
+				requests[i] = new LongAdder();
+				failures[i] = new LongAdder();
+				slows[i] = new LongAdder();
+			}
+		}
+
+		private void record(final long now, final boolean failed, final boolean slow) {
+			long period = now / bucketNanos;
+			int i = (int) Math.floorMod(period, (long) buckets);
+			long bucketPeriod = periods[i].get();
+			if (bucketPeriod != period && periods[i].compareAndSet(bucketPeriod, period)) {
+				requests[i].reset();
+				failures[i].reset();
+				slows[i].reset();
+			}
+			requests[i].increment();
+			if (failed) {
+				failures[i].increment();
+			}
+			if (slow) {
+				slows[i].increment();
+			}
+		}
+
+		/**
+		 * @return numbers of the requests, failures and slow requests of the buckets of the current window
+		 */
+		@NonNull
+		private long[] sum(final long now) {
+			long period = now / bucketNanos;
+			long[] result = new long[3];
+			for (int i = 0; i < buckets; i++) {
+				long bucketPeriod = periods[i].get();
+				if (bucketPeriod != EMPTY && period - bucketPeriod < buckets) {
+					result[0] += requests[i].sum();
+					result[1] += failures[i].sum();
+					result[2] += slows[i].sum();
+				}
+			}
+			return result;
+		}
+
+		private void reset() {
+			for (AtomicLong period : periods) {
+				period.set(EMPTY);
+			}
+		}
+	}
+}
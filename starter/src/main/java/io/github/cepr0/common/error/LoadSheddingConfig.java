@@ -0,0 +1,57 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Load shedding of the servlet applications, enabled with 'api-error.shedding.enabled'
+ */
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(DispatcherServlet.class)
+@ConditionalOnProperty(prefix = "api-error.shedding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ApiErrorProperties.class)
+public class LoadSheddingConfig {
+
+	/**
+	 * Right after the request context filter, so the rejected requests skip the rest of the filters
+	 */
+	private static final int ORDER = -100;
+
+	@Bean
+	LoadShedder loadShedder(ApiErrorProperties props) {
+		return new LoadShedder(props.getShedding());
+	}
+
+	@Bean
+	LoadSheddingFilter loadSheddingFilter(
+			LoadShedder shedder,
+			ErrorResponseCache responseCache,
+			ErrorResponseRenderer renderer,
+			MessageProvider mp,
+			AcceptLanguageResolver localeResolver,
+			ObjectProvider<MeterRegistry> registry
+	) {
+		return new LoadSheddingFilter(shedder, responseCache, renderer, mp, localeResolver, registry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	@Bean
+	FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilterRegistration(LoadSheddingFilter filter) {
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.setOrder(ORDER);
+		return registration;
+	}
+}
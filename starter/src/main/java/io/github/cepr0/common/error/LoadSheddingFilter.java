@@ -0,0 +1,187 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.CommonErrorCode;
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Sheds the requests of the failing or slow routes with the {@link LoadShedder}: the rejected requests are responded
+ * with the 503 {@link ApiErrorMessage} in the negotiated format and the 'Retry-After' header before they reach
+ * the application.
+ * <p/>
+ * The route of a request is its method and the mapped path or pattern, e.g. 'GET /users/{id}', resolved before
+ * the dispatch by the {@link HandlerMappingIndex}, so the number of the routes is bounded by the mappings.
+ * The requests of the unmapped paths are not tracked, as well as all requests while the index is incomplete.
+ * <p/>
+ * The request is failed if it's responded with 5xx. The expected client errors, i.e. {@link ApiException}s,
+ * {@link ValidationException}s and failed {@link ValidationResult}s with 4xx status, are marked by the handlers
+ * and are never failures, so the clients can't open the route for the others with their input;
+ * the expected errors with 5xx status are failures as well as the unexpected ones.
+ * The async requests are completed when their async processing is completed.
+ */
+@Slf4j
+public class LoadSheddingFilter extends OncePerRequestFilter implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+
+	/**
+	 * Request attribute set by the handlers of the expected client errors
+	 */
+	static final String EXPECTED_ERROR = LoadSheddingFilter.class.getName() + ".EXPECTED_ERROR";
+
+	private static final String SHED = "api.requests.shed";
+	private static final String OVERLOADED = CommonErrorCode.REQUEST_OVERLOADED.getCode();
+
+	private final LoadShedder shedder;
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final MessageProvider mp;
+	private final AcceptLanguageResolver localeResolver;
+	private final MeterRegistry registry;
+
+	private ApplicationContext context;
+	private volatile HandlerMappingIndex index = HandlerMappingIndex.INCOMPLETE;
+
+	public LoadSheddingFilter(
+			final LoadShedder shedder,
+			final ErrorResponseCache responseCache,
+			final ErrorResponseRenderer renderer,
+			final MessageProvider mp,
+			final AcceptLanguageResolver localeResolver,
+			final MeterRegistry registry
+	) {
+		this.shedder = shedder;
+		this.responseCache = responseCache;
+		this.renderer = renderer;
+		this.mp = mp;
+		this.localeResolver = localeResolver;
+		this.registry = registry;
+	}
+
+	@Override
+	public void setApplicationContext(@NonNull final ApplicationContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Builds the index of the handler mappings of this context, the child contexts are ignored
+	 */
+	@Override
+	public void onApplicationEvent(@NonNull final ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != context) {
+			return;
+		}
+		index = HandlerMappingIndex.of(context);
+		if (!index.isComplete()) {
+			log.warn("[w] Requests are not shed: some of the handler mappings can't be indexed, so their routes are unknown");
+		}
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response,
+			@NonNull final FilterChain chain
+	) throws ServletException, IOException {
+		String route = index.getRoute(request);
+		if (route == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		LoadShedder.Permit permit = shedder.acquire(route);
+		if (permit == null) {
+			reject(route, request, response);
+			return;
+		}
+
+		boolean failed = true;
+		try {
+			chain.doFilter(request, response);
+			failed = isFailed(request, response);
+		} finally {
+			if (!failed && request.isAsyncStarted()) {
+				completeAsync(permit, request, response);
+			} else {
+				permit.complete(failed);
+			}
+		}
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private static boolean isFailed(@NonNull final HttpServletRequest request, @NonNull final HttpServletResponse response) {
+		return response.getStatus() >= 500 && request.getAttribute(EXPECTED_ERROR) == null;
+	}
+
+	private static void completeAsync(
+			@NonNull final LoadShedder.Permit permit,
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response
+	) {
+		request.getAsyncContext().addListener(new AsyncListener() {
+			@Override
+			public void onComplete(final AsyncEvent event) {
+				permit.complete(isFailed(request, response));
+			}
+
+			@Override
+			public void onTimeout(final AsyncEvent event) {
+				permit.complete(true);
+			}
+
+			@Override
+			public void onError(final AsyncEvent event) {
+				permit.complete(true);
+			}
+
+			@Override
+			public void onStartAsync(final AsyncEvent event) {
+			}
+		});
+	}
+
+	private void reject(@NonNull final String route, @NonNull final HttpServletRequest request, @NonNull final HttpServletResponse response) throws IOException {
+		registry.counter(SHED, "route", route).increment();
+
+		ErrorFormat format = renderer.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		Locale locale = localeResolver.resolve(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+		String path = request.getRequestURI();
+		byte[] body = null;
+		if (format == ErrorFormat.JSON) {
+			body = responseCache.render(OVERLOADED, HttpStatus.SERVICE_UNAVAILABLE, locale, Instant.now(), path);
+		}
+		if (body == null) {
+			String message = mp.findMessage(OVERLOADED, locale);
+			body = renderer.render(ApiErrorMessage.builder()
+					.httpStatus(HttpStatus.SERVICE_UNAVAILABLE)
+					.message(message != null ? message : OVERLOADED)
+					.path(path)
+					.build(), format);
+		}
+
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(shedder.retryAfterSeconds(route)));
+		response.setContentType(format.getMediaType().toString());
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+}
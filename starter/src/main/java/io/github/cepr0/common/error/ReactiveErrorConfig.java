@@ -0,0 +1,35 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.DispatcherHandler;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Error handling of the WebFlux applications, the servlet ones are served by {@link ExceptionsHandler}
+ */
+@Configuration
+@ConditionalOnWebApplication(type = REACTIVE)
+@ConditionalOnClass(DispatcherHandler.class)
+public class ReactiveErrorConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	ReactiveExceptionsHandler reactiveExceptionsHandler(
+			MessageProvider mp,
+			ErrorResponseCache responseCache,
+			ExceptionHandlerRegistry exceptionHandlers,
+			ErrorResponseRenderer renderer,
+			ErrorMetrics metrics,
+			ErrorLogger errorLogger,
+			AcceptLanguageResolver localeResolver
+	) {
+		return new ReactiveExceptionsHandler(mp, responseCache, exceptionHandlers, renderer, metrics, errorLogger, localeResolver);
+	}
+}
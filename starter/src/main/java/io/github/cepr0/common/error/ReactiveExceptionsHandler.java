@@ -0,0 +1,269 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.MessageCode;
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolationException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+/**
+ * Reactive counterpart of {@link ExceptionsHandler}: renders exceptions as the same {@link ApiErrorMessage} bodies
+ * in the {@link ErrorFormat} negotiated with the request,
+ * using the same {@link ExceptionHandlerRegistry} and {@link MessageProvider}.
+ * <p/>
+ * The locale is resolved by {@link AcceptLanguageResolver} and exposed through {@link LocaleContextHolder} while the error is built,
+ * so the registered handlers resolve messages as in the servlet application. The error is built synchronously
+ * from the cached messages and written without blocking.
+ */
+@Order(-2) // before the Spring Boot DefaultErrorWebExceptionHandler
+public class ReactiveExceptionsHandler implements WebExceptionHandler {
+
+	private final ExceptionHandlerRegistry exceptionHandlers;
+	private final MessageProvider mp;
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final ErrorMetrics metrics;
+	private final ApiErrorMessageFactory errorMessages;
+	private final ErrorLogger errorLogger;
+	private final AcceptLanguageResolver localeResolver;
+
+	public ReactiveExceptionsHandler(
+			final MessageProvider mp,
+			final ErrorResponseCache responseCache,
+			final ExceptionHandlerRegistry exceptionHandlers,
+			final ErrorResponseRenderer renderer,
+			final ErrorMetrics metrics,
+			final ErrorLogger errorLogger,
+			final AcceptLanguageResolver localeResolver
+	) {
+		this.mp = mp;
+		this.responseCache = responseCache;
+		this.exceptionHandlers = exceptionHandlers;
+		this.renderer = renderer;
+		this.metrics = metrics;
+		this.errorMessages = new ApiErrorMessageFactory(mp);
+		this.errorLogger = errorLogger;
+		this.localeResolver = localeResolver;
+		initHandlers();
+	}
+
+	/**
+	 * Adds the handler of the given exception type and its subtypes, see {@link ExceptionHandlerRegistry#addHandler(Class, Function)}.
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final Function<E, ApiErrorMessage> handler) {
+		exceptionHandlers.addHandler(ex, handler);
+	}
+
+	/**
+	 * Adds the handler which renders the exception as the error with the given status and the message of the given code.
+	 * The body of such an error is rendered from the {@link ErrorResponseCache}.
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final HttpStatus httpStatus, final String code) {
+		exceptionHandlers.addHandler(ex, new StaticMessageHandler<>(httpStatus, code, mp));
+	}
+
+	/**
+	 * Adds the handler which renders the exception as the error with the given status and the message of the given code,
+	 * see {@link #addHandler(Class, HttpStatus, String)}
+	 */
+	public <E extends Exception> void addHandler(final Class<E> ex, final HttpStatus httpStatus, final MessageCode.Args0 code) {
+		addHandler(ex, httpStatus, code.getCode());
+	}
+
+	@NonNull
+	@Override
+	public Mono<Void> handle(@NonNull final ServerWebExchange exchange, @NonNull final Throwable error) {
+		Throwable ex = ErrorContext.unwrap(error);
+		ServerHttpResponse response = exchange.getResponse();
+		if (response.isCommitted()) {
+			return Mono.error(error);
+		}
+
+		Locale locale = getLocale(exchange);
+		String path = exchange.getRequest().getPath().value();
+		ErrorFormat format = renderer.negotiate(getAccept(exchange));
+
+		Rendered rendered;
+		LocaleContext previous = LocaleContextHolder.getLocaleContext();
+		LocaleContextHolder.setLocale(locale);
+		try {
+			rendered = render(ex, exchange, path, locale, format);
+		} finally {
+			LocaleContextHolder.setLocaleContext(previous);
+		}
+
+		response.setStatusCode(rendered.httpStatus);
+		response.getHeaders().setContentType(format.getMediaType());
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(rendered.body)));
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private void initHandlers() {
+		// WebExchangeBindException - reactive counterpart of MethodArgumentNotValidException
+		addHandler(WebExchangeBindException.class, ex -> errorMessages.objectErrors(ex.getAllErrors(), null, null));
+	}
+
+	@NonNull
+	private Rendered render(
+			@NonNull final Throwable ex,
+			@NonNull final ServerWebExchange exchange,
+			@NonNull final String path,
+			@NonNull final Locale locale,
+			@NonNull final ErrorFormat format
+	) {
+		if (ex instanceof ApiException) {
+			var apiException = (ApiException) ex;
+			logHandling(ex, apiException.getCode(), exchange);
+			var sample = metrics.start(HandlerKind.API);
+			if (apiException.getCode() != null && apiException.getArgs().length == 0) {
+				var rendered = cached(ex, apiException.getHttpStatus(), apiException.getCode(), path, locale, format, sample);
+				if (rendered != null) {
+					return rendered;
+				}
+			}
+			return render(ex, errorMessages.apiError(apiException, path, sample), apiException.getCode(), format, sample);
+		}
+
+		if (ex instanceof ConstraintViolationException) {
+			var sample = metrics.start(HandlerKind.CONSTRAINT_VIOLATION);
+			var errorMessage = errorMessages.constraintViolations((ConstraintViolationException) ex, path, sample);
+			return render(ex, errorMessage, ApiErrorMessageFactory.VALIDATION_FAILED, format, sample);
+		}
+
+		if (ex instanceof ValidationException) {
+			logHandling(ex, ApiErrorMessageFactory.VALIDATION_FAILED, exchange);
+			var sample = metrics.start(HandlerKind.VALIDATION);
+			var errorMessage = errorMessages.objectErrors(((ValidationException) ex).getErrors().getAllErrors(), path, sample);
+			return render(ex, errorMessage, ApiErrorMessageFactory.VALIDATION_FAILED, format, sample);
+		}
+
+		var handler = exceptionHandlers.get(ex.getClass());
+		if (handler != null) {
+			String code = handler instanceof StaticMessageHandler ? ((StaticMessageHandler<?>) handler).code : null;
+			logHandling(ex, code, exchange);
+			var sample = metrics.start(HandlerKind.MAPPED);
+			if (handler instanceof StaticMessageHandler) {
+				var staticHandler = (StaticMessageHandler<?>) handler;
+				var rendered = cached(ex, staticHandler.httpStatus, code, path, locale, format, sample);
+				if (rendered != null) {
+					return rendered;
+				}
+			}
+			var errorMessage = handler.apply(ex);
+			sample.built();
+			return render(ex, withPath(errorMessage, path), code, format, sample);
+		}
+
+		if (ex instanceof ResponseStatusException) {
+			// the reactive counterpart of the Spring MVC exceptions handled by ResponseEntityExceptionHandler
+			errorLogger.notOverridden(ex, exchange.getRequest().getMethod(), path);
+			var responseStatusException = (ResponseStatusException) ex;
+			var sample = metrics.start(HandlerKind.NOT_OVERRIDDEN);
+			var errorMessage = ApiErrorMessage.builder()
+					.httpStatus(responseStatusException.getStatus())
+					.message(responseStatusException.getReason())
+					.path(path)
+					.build();
+			sample.built();
+			return render(ex, errorMessage, null, format, sample);
+		}
+
+		errorLogger.unhandled(ex, exchange.getRequest().getMethod(), path);
+		var sample = metrics.start(HandlerKind.UNHANDLED);
+		var errorMessage = ApiErrorMessage.builder()
+				.httpStatus(INTERNAL_SERVER_ERROR)
+				.message(ex.getMessage())
+				.path(path)
+				.build();
+		sample.built();
+		return render(ex, errorMessage, null, format, sample);
+	}
+
+	@NonNull
+	private Rendered render(
+			@NonNull final Throwable ex,
+			@NonNull final ApiErrorMessage errorMessage,
+			@Nullable final String code,
+			@NonNull final ErrorFormat format,
+			@NonNull final ErrorMetrics.Sample sample
+	) {
+		byte[] body = renderer.render(errorMessage, format);
+		sample.stop(ex, errorMessage.getHttpStatus(), code);
+		return new Rendered(errorMessage.getHttpStatus(), body);
+	}
+
+	@Nullable
+	private Rendered cached(
+			@NonNull final Throwable ex,
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final String code,
+			@NonNull final String path,
+			@NonNull final Locale locale,
+			@NonNull final ErrorFormat format,
+			@NonNull final ErrorMetrics.Sample sample
+	) {
+		if (format != ErrorFormat.JSON) {
+			return null;
+		}
+		byte[] body = responseCache.render(code, httpStatus, locale, Instant.now(), path);
+		if (body == null) {
+			return null;
+		}
+		sample.stop(ex, httpStatus, code);
+		return new Rendered(httpStatus, body);
+	}
+
+	@NonNull
+	private static ApiErrorMessage withPath(@NonNull final ApiErrorMessage errorMessage, @NonNull final String path) {
+		return errorMessage.getPath() == null ? errorMessage.withPath(path) : errorMessage;
+	}
+
+	@Nullable
+	private static String getAccept(@NonNull final ServerWebExchange exchange) {
+		List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+		return accept == null || accept.isEmpty() ? null : String.join(",", accept);
+	}
+
+	/**
+	 * @return the locale of the 'Accept-Language' header, resolved to one of the supported locales
+	 */
+	@NonNull
+	private Locale getLocale(@NonNull final ServerWebExchange exchange) {
+		return localeResolver.resolve(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_LANGUAGE));
+	}
+
+	private void logHandling(@NonNull final Throwable ex, @Nullable final String code, @NonNull final ServerWebExchange exchange) {
+		var request = exchange.getRequest();
+		errorLogger.handled(ex, code, request.getMethod(), request.getPath().value());
+	}
+
+	private static final class Rendered {
+		private final HttpStatus httpStatus;
+		private final byte[] body;
+
+		private Rendered(final HttpStatus httpStatus, final byte[] body) {
+			this.httpStatus = httpStatus;
+			this.body = body;
+		}
+	}
+}
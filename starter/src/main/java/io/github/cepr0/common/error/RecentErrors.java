@@ -0,0 +1,242 @@
+package io.github.cepr0.common.error;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Value;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * Fixed-size lock-free ring buffer of the recently handled errors. Recording an error takes one increment
+ * of the sequence and one write of the slot, the oldest errors are overwritten, so the memory doesn't depend
+ * on the error rate. The slots keep only the compact fields of the errors, not the exceptions.
+ * <p/>
+ * The stack trace is not touched on the request thread: a slot gets the coarse fingerprint of the exception class
+ * and the code, and the exception is handed over to the background thread through a bounded queue, which replaces
+ * it by the {@link ErrorFingerprint} of the top frames and drops the exception. When the queue is full, the slot
+ * keeps the coarse fingerprint.
+ * <p/>
+ * Queries scan a snapshot of the buffer: the errors recorded during the scan may be missed or included,
+ * which is fine for diagnostics.
+ */
+public class RecentErrors implements DisposableBean {
+
+	private static final long DRAIN_DELAY_MS = 100;
+
+	private final boolean enabled;
+	private final int mask;
+	private final AtomicReferenceArray<Slot> slots;
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingSize = new AtomicInteger();
+	private final ScheduledExecutorService executor;
+
+	public RecentErrors(@NonNull final ApiErrorProperties.Recent props) {
+		this.enabled = props.isEnabled();
+		int capacity = Integer.highestOneBit(Math.max(1, props.getCapacity() - 1)) << 1;
+		this.mask = capacity - 1;
+		this.slots = new AtomicReferenceArray<>(enabled ? capacity : 0);
+
+		if (enabled) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "recent-errors");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this::drain, DRAIN_DELAY_MS, DRAIN_DELAY_MS, MILLISECONDS);
+		} else {
+			executor = null;
+		}
+	}
+
+	/**
+	 * Records the handled error
+	 *
+	 * @param route route of the request, e.g. 'POST /demo/{id}'
+	 */
+	public void record(@NonNull final Throwable ex, @NonNull final HttpStatus httpStatus, @Nullable final String code, @Nullable final String route) {
+		if (!enabled) {
+			return;
+		}
+		String exception = getMostSpecificCause(ex).getClass().getName();
+		var slot = new Slot(System.currentTimeMillis(), route, httpStatus.value(), code, exception);
+		slots.lazySet((int) (sequence.getAndIncrement() & mask), slot);
+
+		if (pendingSize.incrementAndGet() > slots.length()) {
+			pendingSize.decrementAndGet();
+			return;
+		}
+		pending.offer(new Pending(slot, ex));
+	}
+
+	/**
+	 * @param window period of the errors to report, till now
+	 * @param top max number of the most frequent fingerprints
+	 * @param samples max number of the most recent errors
+	 */
+	@NonNull
+	public Report report(@NonNull final Duration window, final int top, final int samples) {
+		long now = System.currentTimeMillis();
+		long since = now - window.toMillis();
+
+		List<Entry> recent = new ArrayList<>();
+		for (int i = 0, n = slots.length(); i < n; i++) {
+			Slot slot = slots.get(i);
+			if (slot != null && slot.timestamp >= since) {
+				recent.add(slot.toEntry());
+			}
+		}
+		recent.sort(Comparator.comparingLong(Entry::getTimestamp).reversed());
+
+		Map<Long, Group> groups = new HashMap<>();
+		for (Entry entry : recent) {
+			groups.computeIfAbsent(entry.fingerprint, fp -> new Group(entry)).count++;
+		}
+		List<Group> topGroups = new ArrayList<>(groups.values());
+		topGroups.sort(Comparator.comparingLong((Group g) -> g.count).reversed());
+
+		List<Fingerprint> fingerprints = new ArrayList<>(Math.min(top, topGroups.size()));
+		for (int i = 0, n = Math.min(top, topGroups.size()); i < n; i++) {
+			fingerprints.add(topGroups.get(i).toFingerprint());
+		}
+
+		return new Report(
+				Instant.ofEpochMilli(since),
+				Instant.ofEpochMilli(now),
+				recent.size(),
+				fingerprints,
+				List.copyOf(recent.subList(0, Math.min(samples, recent.size())))
+		);
+	}
+
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Handled error
+	 */
+	@Value
+	public static class Entry {
+		long timestamp;
+		String route;
+		int status;
+		String code;
+		String exception;
+		@JsonFormat(shape = JsonFormat.Shape.STRING) long fingerprint;
+	}
+
+	/**
+	 * Errors of the same fingerprint in the window
+	 */
+	@Value
+	public static class Fingerprint {
+		@JsonFormat(shape = JsonFormat.Shape.STRING) long fingerprint;
+		long count;
+		long lastSeen;
+		String route;
+		int status;
+		String code;
+		String exception;
+	}
+
+	@Value
+	public static class Report {
+		Instant from;
+		Instant to;
+		int total;
+		List<Fingerprint> top;
+		List<Entry> recent;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Replaces the coarse fingerprints of the recorded errors by the fingerprints of their top frames
+	 */
+	private void drain() {
+		Pending p;
+		while ((p = pending.poll()) != null) {
+			pendingSize.decrementAndGet();
+			p.slot.fingerprint = ErrorFingerprint.of(p.ex, p.slot.code);
+		}
+	}
+
+	/**
+	 * Recorded error, converted to the {@link Entry} when the report is read
+	 */
+	private static final class Slot {
+		private final long timestamp;
+		private final String route;
+		private final int status;
+		private final String code;
+		private final String exception;
+		private volatile long fingerprint;
+
+		private Slot(final long timestamp, final String route, final int status, final String code, final String exception) {
+			this.timestamp = timestamp;
+			this.route = route;
+			this.status = status;
+			this.code = code;
+			this.exception = exception;
+			this.fingerprint = ErrorFingerprint.of(exception, code);
+		}
+
+		private Entry toEntry() {
+			return new Entry(timestamp, route, status, code, exception, fingerprint);
+		}
+	}
+
+	/**
+	 * Recorded error waiting for its fingerprint, the only holder of the exception
+	 */
+	private static final class Pending {
+		private final Slot slot;
+		private final Throwable ex;
+
+		private Pending(final Slot slot, final Throwable ex) {
+			this.slot = slot;
+			this.ex = ex;
+		}
+	}
+
+	/**
+	 * Fingerprint group, the entries are added from the most recent one
+	 */
+	private static final class Group {
+		private final Entry last;
+		private long count;
+
+		private Group(final Entry last) {
+			this.last = last;
+		}
+
+		private Fingerprint toFingerprint() {
+			return new Fingerprint(last.fingerprint, count, last.timestamp, last.route, last.status, last.code, last.exception);
+		}
+	}
+}
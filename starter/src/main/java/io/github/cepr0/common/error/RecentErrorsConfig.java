@@ -0,0 +1,36 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link RecentErrors} buffer, fed by the {@link ExceptionsHandler}, and its actuator endpoint
+ */
+@Configuration
+@EnableConfigurationProperties(ApiErrorProperties.class)
+public class RecentErrorsConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	RecentErrors recentErrors(ApiErrorProperties props) {
+		return new RecentErrors(props.getRecent());
+	}
+
+	@Configuration
+	@ConditionalOnClass(Endpoint.class)
+	@ConditionalOnProperty(prefix = "api-error.recent", name = "enabled", matchIfMissing = true)
+	static class EndpointConfig {
+
+		@Bean
+		@ConditionalOnEnabledEndpoint
+		RecentErrorsEndpoint recentErrorsEndpoint(RecentErrors recentErrors, ApiErrorProperties props) {
+			return new RecentErrorsEndpoint(recentErrors, props.getRecent());
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package io.github.cepr0.common.error;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * The 'errors' actuator endpoint: the most frequent error fingerprints and the most recent errors in the window,
+ * e.g. '/actuator/errors?window=10m&amp;top=5&amp;samples=10'. Omitted parameters are taken from 'api-error.recent.*'.
+ */
+@Endpoint(id = "errors")
+public class RecentErrorsEndpoint {
+
+	private final RecentErrors recentErrors;
+	private final ApiErrorProperties.Recent props;
+
+	public RecentErrorsEndpoint(final RecentErrors recentErrors, final ApiErrorProperties.Recent props) {
+		this.recentErrors = recentErrors;
+		this.props = props;
+	}
+
+	@ReadOperation
+	public RecentErrors.Report errors(@Nullable final Duration window, @Nullable final Integer top, @Nullable final Integer samples) {
+		return recentErrors.report(
+				window != null ? window : props.getWindow(),
+				top != null ? top : props.getTop(),
+				samples != null ? samples : props.getSamples()
+		);
+	}
+}
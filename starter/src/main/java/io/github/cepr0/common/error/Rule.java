@@ -0,0 +1,60 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageCode;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Validation rule, which returns its violation as the failed {@link ValidationResult} instead of throwing it.
+ * Rules are composed with {@link #and(Rule)} and {@link #allOf(List)}, the first violation wins:
+ * <pre>
+ * Rule&lt;Model&gt; rules = Rule.&lt;Model&gt;of(m -&gt; m.getNum() == 0, FORBIDDEN, ErrorCode.MODEL_FORBIDDEN_ID)
+ *         .and(Rule.of(m -&gt; m.getNum() &lt; 0, BAD_REQUEST, ErrorCode.REQUEST_NUM_NEGATIVE));
+ * </pre>
+ */
+@FunctionalInterface
+public interface Rule<T> {
+
+	@NonNull
+	ValidationResult<T> validate(T value);
+
+	/**
+	 * @return this rule, followed by the given one if this rule is satisfied
+	 */
+	@NonNull
+	default Rule<T> and(@NonNull final Rule<T> next) {
+		return value -> {
+			ValidationResult<T> result = validate(value);
+			return result.isValid() ? next.validate(value) : result;
+		};
+	}
+
+	/**
+	 * @return the rule which is violated if the given predicate is true. The failure is created once and shared.
+	 */
+	@NonNull
+	static <T> Rule<T> of(@NonNull final Predicate<? super T> violation, @NonNull final HttpStatus httpStatus, @NonNull final MessageCode code, final Object... args) {
+		ValidationResult<T> failure = ValidationResult.invalid(httpStatus, code, args);
+		return value -> violation.test(value) ? failure : ValidationResult.valid(value);
+	}
+
+	/**
+	 * @return the rule which is violated if any of the given rules is violated, they are checked in the given order
+	 */
+	@NonNull
+	static <T> Rule<T> allOf(@NonNull final List<? extends Rule<T>> rules) {
+		List<Rule<T>> copy = List.copyOf(rules);
+		return value -> {
+			for (Rule<T> rule : copy) {
+				ValidationResult<T> result = rule.validate(value);
+				if (!result.isValid()) {
+					return result;
+				}
+			}
+			return ValidationResult.valid(value);
+		};
+	}
+}
@@ -0,0 +1,36 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Error handling of the servlet applications, the reactive ones are served by {@link ReactiveErrorConfig}
+ */
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(DispatcherServlet.class)
+@AutoConfigureAfter({ErrorConfig.class, RecentErrorsConfig.class})
+public class ServletErrorConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	ExceptionsHandler exceptionsHandler(
+			MessageProvider mp,
+			ErrorResponseCache responseCache,
+			ExceptionHandlerRegistry exceptionHandlers,
+			ErrorResponseRenderer renderer,
+			ErrorMetrics metrics,
+			ErrorLogger errorLogger,
+			RecentErrors recentErrors
+	) {
+		return new ExceptionsHandler(mp, responseCache, exceptionHandlers, renderer, metrics, errorLogger, recentErrors);
+	}
+}
@@ -0,0 +1,32 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.http.HttpStatus;
+
+import java.util.function.Function;
+
+/**
+ * Handler which renders an exception as the error with the given status and the message of the given code.
+ * Exception handlers render the body of such an error from the {@link ErrorResponseCache} when possible,
+ * {@link #apply} is the fallback for the codes which can't be cached.
+ */
+class StaticMessageHandler<E extends Exception> implements Function<E, ApiErrorMessage> {
+
+	final HttpStatus httpStatus;
+	final String code;
+	private final MessageProvider mp;
+
+	StaticMessageHandler(final HttpStatus httpStatus, final String code, final MessageProvider mp) {
+		this.httpStatus = httpStatus;
+		this.code = code;
+		this.mp = mp;
+	}
+
+	@Override
+	public ApiErrorMessage apply(final E ex) {
+		return ApiErrorMessage.builder()
+				.httpStatus(httpStatus)
+				.message(mp.getLocalizedMessage(code))
+				.build();
+	}
+}
@@ -0,0 +1,131 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.error.ApiErrorMessage.Error;
+import org.springframework.lang.NonNull;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Sub-errors of {@link ApiErrorMessage}. Besides the added sub-errors, it holds the sources of the deferred ones -
+ * collections of the validation errors with the functions building the sub-errors from them.
+ * The deferred sub-errors are built while they are iterated, e.g. when they are written by {@link ApiErrorMessageWriter},
+ * so the sub-errors beyond the payload budget are never built.
+ */
+public final class SubErrors extends AbstractCollection<Error> {
+
+	private final List<Chunk> chunks = new ArrayList<>(1);
+	private int size;
+
+	@NonNull
+	@Override
+	public Iterator<Error> iterator() {
+		return new Iterator<>() {
+			private int next;
+			private Iterator<Error> current = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext() && next < chunks.size()) {
+					current = chunks.get(next++).iterator();
+				}
+				return current.hasNext();
+			}
+
+			@Override
+			public Error next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(@NonNull final Error error) {
+		Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+		if (!(last instanceof Added)) {
+			last = new Added(new ArrayList<>());
+			chunks.add(last);
+		}
+		((Added) last).errors.add(error);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Adds the sub-errors which are built from the given source elements with the given function when they are iterated.
+	 * The source must not be changed afterwards.
+	 */
+	public <T> void addDeferred(@NonNull final Collection<? extends T> source, @NonNull final Function<? super T, Error> builder) {
+		if (!source.isEmpty()) {
+			chunks.add(new Deferred<>(source, builder));
+			size += source.size();
+		}
+	}
+
+	/**
+	 * Adds all sub-errors of the given ones without building the deferred sub-errors
+	 */
+	void addAll(@NonNull final SubErrors other) {
+		for (Chunk chunk : other.chunks) {
+			chunks.add(chunk instanceof Added ? new Added(new ArrayList<>(((Added) chunk).errors)) : chunk);
+		}
+		size += other.size;
+	}
+
+	private interface Chunk {
+		Iterator<Error> iterator();
+	}
+
+	private static final class Added implements Chunk {
+		private final List<Error> errors;
+
+		private Added(final List<Error> errors) {
+			this.errors = errors;
+		}
+
+		@Override
+		public Iterator<Error> iterator() {
+			return errors.iterator();
+		}
+	}
+
+	private static final class Deferred<T> implements Chunk {
+		private final Collection<? extends T> source;
+		private final Function<? super T, Error> builder;
+
+		private Deferred(final Collection<? extends T> source, final Function<? super T, Error> builder) {
+			this.source = source;
+			this.builder = builder;
+		}
+
+		@Override
+		public Iterator<Error> iterator() {
+			Iterator<? extends T> elements = source.iterator();
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return elements.hasNext();
+				}
+
+				@Override
+				public Error next() {
+					return builder.apply(elements.next());
+				}
+			};
+		}
+	}
+}
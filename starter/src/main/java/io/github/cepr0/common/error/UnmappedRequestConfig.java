@@ -0,0 +1,52 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Pre-dispatch rejection of the unmapped requests of the servlet applications, enabled with 'api-error.unmapped.enabled'
+ */
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(DispatcherServlet.class)
+@ConditionalOnProperty(prefix = "api-error.unmapped", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ApiErrorProperties.class)
+public class UnmappedRequestConfig {
+
+	/**
+	 * Before the load shedding, so the probes of the unmapped paths don't reach it
+	 */
+	private static final int ORDER = -110;
+
+	@Bean
+	UnmappedRequestFilter unmappedRequestFilter(
+			ErrorResponseCache responseCache,
+			ErrorResponseRenderer renderer,
+			MessageProvider mp,
+			AcceptLanguageResolver localeResolver,
+			ObjectProvider<MeterRegistry> registry,
+			ApiErrorProperties props
+	) {
+		return new UnmappedRequestFilter(responseCache, renderer, mp, localeResolver, registry.getIfAvailable(() -> Metrics.globalRegistry), props.getUnmapped().getMaxAge());
+	}
+
+	@Bean
+	FilterRegistrationBean<UnmappedRequestFilter> unmappedRequestFilterRegistration(UnmappedRequestFilter filter) {
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.setOrder(ORDER);
+		return registration;
+	}
+}
@@ -0,0 +1,202 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.AcceptLanguageResolver;
+import io.github.cepr0.common.message.CommonErrorCode;
+import io.github.cepr0.common.message.MessageCode;
+import io.github.cepr0.common.message.MessageProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Responds to the requests of the unmapped paths (404) and methods (405) before they reach the dispatcher servlet,
+ * so the scanner and bot probes don't go through the handler lookup, the {@code NoHandlerFoundException}
+ * and its handler. The paths are checked against the {@link HandlerMappingIndex} built from the handler mappings
+ * on the context refresh.
+ * <p/>
+ * The responses are rendered from the {@link ErrorResponseCache} and are cacheable: they have the 'Cache-Control'
+ * header with the configured max age and the weak 'ETag' of the status, the message and the path
+ * (the timestamp is not a part of it), so the edge caches can absorb the repeated probes. 404 and 405 are cacheable
+ * by default, but the conditional requests are not answered with 304, as preconditions apply to 2xx responses only.
+ * <p/>
+ * The request is passed to the dispatcher as is, if the index is incomplete, the client doesn't accept JSON,
+ * or the message can't be resolved.
+ */
+@Slf4j
+public class UnmappedRequestFilter extends OncePerRequestFilter implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+
+	private static final String UNMAPPED = "api.requests.unmapped";
+	private static final MessageCode.Args0 PATH_UNSUPPORTED = CommonErrorCode.REQUEST_PATH_UNSUPPORTED;
+	private static final MessageCode.Args0 METHOD_UNSUPPORTED = CommonErrorCode.REQUEST_METHOD_UNSUPPORTED;
+	private static final String VARY = String.join(", ", HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE);
+
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final MessageProvider mp;
+	private final AcceptLanguageResolver localeResolver;
+	private final MeterRegistry registry;
+	private final String cacheControl;
+
+	private ApplicationContext context;
+	private volatile HandlerMappingIndex index = HandlerMappingIndex.INCOMPLETE;
+
+	public UnmappedRequestFilter(
+			final ErrorResponseCache responseCache,
+			final ErrorResponseRenderer renderer,
+			final MessageProvider mp,
+			final AcceptLanguageResolver localeResolver,
+			final MeterRegistry registry,
+			final Duration maxAge
+	) {
+		this.responseCache = responseCache;
+		this.renderer = renderer;
+		this.mp = mp;
+		this.localeResolver = localeResolver;
+		this.registry = registry;
+		this.cacheControl = CacheControl.maxAge(maxAge.getSeconds(), TimeUnit.SECONDS).cachePublic().getHeaderValue();
+	}
+
+	@Override
+	public void setApplicationContext(@NonNull final ApplicationContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Builds the index of the handler mappings of this context, the child contexts are ignored
+	 */
+	@Override
+	public void onApplicationEvent(@NonNull final ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != context) {
+			return;
+		}
+		index = HandlerMappingIndex.of(context);
+		if (index.isComplete()) {
+			log.info("[i] Unmapped requests are rejected before the dispatch, {} paths and patterns are indexed", index.size());
+		} else {
+			log.warn("[w] Unmapped requests are passed to the dispatcher: some of the handler mappings can't be indexed");
+		}
+	}
+
+	@Override
+	protected void doFilterInternal(
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response,
+			@NonNull final FilterChain chain
+	) throws ServletException, IOException {
+		Set<RequestMethod> methods = index.getMethods(request);
+		if (methods != null) {
+			if (methods.isEmpty()) {
+				if (reject(HttpStatus.NOT_FOUND, PATH_UNSUPPORTED, null, request, response)) {
+					return;
+				}
+			} else if (!isAllowed(request.getMethod(), methods)) {
+				if (reject(HttpStatus.METHOD_NOT_ALLOWED, METHOD_UNSUPPORTED, methods, request, response)) {
+					return;
+				}
+			}
+		}
+		chain.doFilter(request, response);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * HEAD is allowed as GET, OPTIONS and unknown methods are left to the dispatcher
+	 */
+	private static boolean isAllowed(@NonNull final String method, @NonNull final Set<RequestMethod> methods) {
+		HttpMethod httpMethod = HttpMethod.resolve(method);
+		if (httpMethod == null) {
+			return true;
+		}
+		RequestMethod requestMethod = RequestMethod.valueOf(httpMethod.name());
+		return requestMethod == RequestMethod.OPTIONS
+				|| methods.contains(requestMethod)
+				|| (requestMethod == RequestMethod.HEAD && methods.contains(RequestMethod.GET));
+	}
+
+	/**
+	 * @return true if the response is written, false if the request should be passed to the dispatcher
+	 */
+	private boolean reject(
+			@NonNull final HttpStatus httpStatus,
+			@NonNull final MessageCode.Args0 code,
+			@Nullable final Set<RequestMethod> allowed,
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response
+	) throws IOException {
+		if (renderer.negotiate(request.getHeader(HttpHeaders.ACCEPT)) != ErrorFormat.JSON) {
+			return false;
+		}
+		Locale locale = localeResolver.resolve(request.getHeader(HttpHeaders.ACCEPT_LANGUAGE));
+		String message = mp.findMessage(code, locale);
+		if (message == null) {
+			return false;
+		}
+		String path = request.getRequestURI();
+		byte[] body = responseCache.render(code.getCode(), httpStatus, locale, Instant.now(), path);
+		if (body == null) {
+			return false;
+		}
+		registry.counter(UNMAPPED, "status", String.valueOf(httpStatus.value())).increment();
+		response.setStatus(httpStatus.value());
+		writeHeaders(etag(httpStatus, message, path), allowed, response);
+		response.setContentType(renderer.getContentType().toString());
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+		return true;
+	}
+
+	private void writeHeaders(@NonNull final String etag, @Nullable final Set<RequestMethod> allowed, @NonNull final HttpServletResponse response) {
+		response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.VARY, VARY);
+		if (allowed != null) {
+			response.setHeader(HttpHeaders.ALLOW, allow(allowed));
+		}
+	}
+
+	@NonNull
+	private static String allow(@NonNull final Set<RequestMethod> methods) {
+		Set<RequestMethod> result = EnumSet.copyOf(methods);
+		if (result.contains(RequestMethod.GET)) {
+			result.add(RequestMethod.HEAD);
+		}
+		result.add(RequestMethod.OPTIONS);
+		return StringUtils.collectionToDelimitedString(result, ", ");
+	}
+
+	/**
+	 * @return the weak ETag of the response, which doesn't depend on its timestamp
+	 */
+	@NonNull
+	private static String etag(@NonNull final HttpStatus httpStatus, @NonNull final String message, @NonNull final String path) {
+		long hash = httpStatus.value();
+		hash = 31 * hash + message.hashCode();
+		hash = 31 * hash + path.hashCode();
+		return "W/\"" + Long.toHexString(hash) + "\"";
+	}
+}
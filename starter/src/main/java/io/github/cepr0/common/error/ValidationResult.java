@@ -0,0 +1,129 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageCode;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Result of the validation: either the valid value or the failure - the error status and the message code with its args.
+ * It's an alternative to throwing {@link ApiException}s for the expected errors, like the business rule violations:
+ * the failure is returned from the controller as a value and rendered as the same {@link ApiErrorMessage}
+ * by {@link ValidationResultReturnValueHandler}, without throwing, capturing the stack trace and dispatching
+ * the exception handlers. The failures are immutable, so the failures of the constant rules can be shared, see {@link Rule}.
+ */
+public final class ValidationResult<T> {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	private final T value;
+
+	/**
+	 * Status of the failure, null if the result is valid
+	 */
+	@Getter private final HttpStatus httpStatus;
+
+	/**
+	 * Message code (or message itself) of the failure, null if the result is valid
+	 */
+	@Getter private final String code;
+
+	/**
+	 * Generated message code of the failure, if the failure was created with it, otherwise null
+	 */
+	@Getter private final MessageCode messageCode;
+
+	private final Object[] args;
+
+	private ValidationResult(final T value, final HttpStatus httpStatus, final String code, final MessageCode messageCode, final Object[] args) {
+		this.value = value;
+		this.httpStatus = httpStatus;
+		this.code = code;
+		this.messageCode = messageCode;
+		this.args = args != null ? args : NO_ARGS;
+	}
+
+	@NonNull
+	public static <T> ValidationResult<T> valid(@Nullable final T value) {
+		return new ValidationResult<>(value, null, null, null, NO_ARGS);
+	}
+
+	@NonNull
+	public static <T> ValidationResult<T> invalid(@NonNull final HttpStatus httpStatus, @NonNull final MessageCode code, final Object... args) {
+		return new ValidationResult<>(null, httpStatus, code.getCode(), code, args);
+	}
+
+	@NonNull
+	public static <T> ValidationResult<T> invalid(@NonNull final HttpStatus httpStatus, @NonNull final String codeOrMessage, final Object... args) {
+		return new ValidationResult<>(null, httpStatus, codeOrMessage, null, args);
+	}
+
+	public boolean isValid() {
+		return httpStatus == null;
+	}
+
+	/**
+	 * @return the valid value
+	 * @throws IllegalStateException if the result is a failure
+	 */
+	@Nullable
+	public T getValue() {
+		if (!isValid()) {
+			throw new IllegalStateException("Validation failed: " + code);
+		}
+		return value;
+	}
+
+	/**
+	 * @return arguments of the message code of the failure
+	 */
+	@NonNull
+	public Object[] getArgs() {
+		return args;
+	}
+
+	/**
+	 * @return the result of the mapped value if this result is valid, otherwise this failure
+	 */
+	@NonNull
+	public <R> ValidationResult<R> map(@NonNull final Function<? super T, ? extends R> mapper) {
+		return isValid() ? valid(mapper.apply(value)) : failure();
+	}
+
+	/**
+	 * @return the result of the given validation of the value if this result is valid, otherwise this failure
+	 */
+	@NonNull
+	public <R> ValidationResult<R> flatMap(@NonNull final Function<? super T, ValidationResult<R>> mapper) {
+		return isValid() ? mapper.apply(value) : failure();
+	}
+
+	/**
+	 * @return the valid value
+	 * @throws ApiException of the failure, e.g. to signal it from the code which is not rendered by the controllers
+	 */
+	@Nullable
+	public T orElseThrow(@NonNull final ApiExceptionFactory apiError) {
+		if (isValid()) {
+			return value;
+		}
+		throw messageCode != null ? apiError.with(httpStatus, messageCode, args) : apiError.with(httpStatus, code, args);
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "Valid(" + value + ")" : "Invalid(" + httpStatus.value() + ", " + code + ")";
+	}
+
+	/**
+	 * The failure has no value, so it can be safely cast to the result of any type
+	 */
+	@NonNull
+	@SuppressWarnings("unchecked")
+	<R> ValidationResult<R> failure() {
+		return (ValidationResult<R>) this;
+	}
+}
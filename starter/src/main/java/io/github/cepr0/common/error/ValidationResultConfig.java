@@ -0,0 +1,61 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+import java.util.ArrayList;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Registers the {@link ValidationResultReturnValueHandler} before the default return value handlers,
+ * so the {@link ValidationResult}s are not written as the ordinary response bodies
+ */
+@Configuration
+@ConditionalOnWebApplication(type = SERVLET)
+@ConditionalOnClass(RequestMappingHandlerAdapter.class)
+public class ValidationResultConfig implements InitializingBean {
+
+	private final RequestMappingHandlerAdapter handlerAdapter;
+	private final MessageProvider mp;
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final ErrorMetrics metrics;
+
+	public ValidationResultConfig(
+			final RequestMappingHandlerAdapter handlerAdapter,
+			final MessageProvider mp,
+			final ErrorResponseCache responseCache,
+			final ErrorResponseRenderer renderer,
+			final ErrorMetrics metrics
+	) {
+		this.handlerAdapter = handlerAdapter;
+		this.mp = mp;
+		this.responseCache = responseCache;
+		this.renderer = renderer;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		var defaultHandlers = handlerAdapter.getReturnValueHandlers();
+		if (defaultHandlers == null) {
+			throw new IllegalStateException("Return value handlers are not initialized");
+		}
+		HandlerMethodReturnValueHandler bodyHandler = defaultHandlers.stream()
+				.filter(RequestResponseBodyMethodProcessor.class::isInstance)
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("Response body handler is not found"));
+
+		var handlers = new ArrayList<HandlerMethodReturnValueHandler>(defaultHandlers.size() + 1);
+		handlers.add(new ValidationResultReturnValueHandler(bodyHandler, mp, responseCache, renderer, metrics));
+		handlers.addAll(defaultHandlers);
+		handlerAdapter.setReturnValueHandlers(handlers);
+	}
+}
@@ -0,0 +1,116 @@
+package io.github.cepr0.common.error;
+
+import io.github.cepr0.common.message.MessageProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
+
+/**
+ * Handler of the {@link ValidationResult}s returned from the controller methods.
+ * The valid value is written as the response body by the given body handler, as if it was returned directly.
+ * The failure is rendered to the same {@link ApiErrorMessage} as the {@link ApiException} with its status and code:
+ * from the {@link ErrorResponseCache} if possible, in the format negotiated by the {@link ErrorResponseRenderer}.
+ * <p/>
+ * The failures are expected outcomes, so they are only counted in the {@link ErrorMetrics} (as the 'result' kind), not logged.
+ */
+public class ValidationResultReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+	private final HandlerMethodReturnValueHandler bodyHandler;
+	private final MessageProvider mp;
+	private final ErrorResponseCache responseCache;
+	private final ErrorResponseRenderer renderer;
+	private final ErrorMetrics metrics;
+
+	public ValidationResultReturnValueHandler(
+			final HandlerMethodReturnValueHandler bodyHandler,
+			final MessageProvider mp,
+			final ErrorResponseCache responseCache,
+			final ErrorResponseRenderer renderer,
+			final ErrorMetrics metrics
+	) {
+		this.bodyHandler = bodyHandler;
+		this.mp = mp;
+		this.responseCache = responseCache;
+		this.renderer = renderer;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public boolean supportsReturnType(@NonNull final MethodParameter returnType) {
+		return ValidationResult.class.isAssignableFrom(returnType.getParameterType());
+	}
+
+	@Override
+	public void handleReturnValue(
+			@Nullable final Object returnValue,
+			@NonNull final MethodParameter returnType,
+			@NonNull final ModelAndViewContainer mavContainer,
+			@NonNull final NativeWebRequest webRequest
+	) throws Exception {
+		if (returnValue == null) {
+			mavContainer.setRequestHandled(true);
+			return;
+		}
+
+		var result = (ValidationResult<?>) returnValue;
+		if (result.isValid()) {
+			bodyHandler.handleReturnValue(result.getValue(), returnType.nested(), mavContainer, webRequest);
+			return;
+		}
+
+		mavContainer.setRequestHandled(true);
+		var request = webRequest.getNativeRequest(HttpServletRequest.class);
+		var response = webRequest.getNativeResponse(HttpServletResponse.class);
+		if (request == null || response == null) {
+			throw new IllegalStateException("Not a servlet request: " + webRequest);
+		}
+		write(result, request, response);
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	private void write(
+			@NonNull final ValidationResult<?> result,
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response
+	) throws Exception {
+		var sample = metrics.start(HandlerKind.RESULT);
+		if (result.getHttpStatus().is4xxClientError()) {
+			request.setAttribute(LoadSheddingFilter.EXPECTED_ERROR, Boolean.TRUE);
+		}
+		String path = request.getRequestURI();
+		ErrorFormat format = renderer.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+
+		byte[] body = null;
+		if (format == ErrorFormat.JSON && result.getArgs().length == 0) {
+			body = responseCache.render(result.getCode(), result.getHttpStatus(), mp.getLocale(), Instant.now(), path);
+		}
+		if (body == null) {
+			String message = result.getMessageCode() != null
+					? mp.getLocalizedMessage(result.getMessageCode(), result.getArgs())
+					: mp.getLocalizedMessage(result.getCode(), result.getArgs());
+			sample.resolved();
+			var errorMessage = ApiErrorMessage.builder()
+					.httpStatus(result.getHttpStatus())
+					.message(message)
+					.path(path)
+					.build();
+			sample.built();
+			body = renderer.render(errorMessage, format);
+		}
+		sample.stop(null, result.getHttpStatus(), result.getCode());
+
+		response.setStatus(result.getHttpStatus().value());
+		response.setContentType(format.getMediaType().toString());
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+}
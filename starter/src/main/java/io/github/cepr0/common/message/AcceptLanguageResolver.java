@@ -0,0 +1,189 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the locale of the 'Accept-Language' header to one of the supported locales, e.g. 'en-AU,en;q=0.9' to 'en'.
+ * If the supported locales are not set, they are the locales of the message bundles found on the classpath,
+ * so any requested locale is mapped to a finite set of them, or to the default one.
+ * <p/>
+ * The header is parsed once per distinct value, the result is cached in the {@link BoundedCache}, so the junk values
+ * sent by a client are evicted instead of the values used by the others.
+ * The fallback chains of the supported locales (e.g. 'ru-RU' -> 'ru') are precomputed, so a requested language range
+ * is mapped with a single lookup. Mapping the requests to a few supported locales also keeps the message caches
+ * of {@link MessageProvider} small, as they are kept per locale: the provider maps the locale of the request
+ * with {@link #resolve(Locale)} before its lookups.
+ */
+@Slf4j
+public class AcceptLanguageResolver {
+
+	/**
+	 * Max number of the cached header values
+	 */
+	private static final int MAX_CACHED = 1024;
+
+	private final Locale defaultLocale;
+
+	/**
+	 * The supported locales by the lowercase language tags of their fallback chains
+	 */
+	private final Map<String, Locale> candidates;
+
+	private final BoundedCache<String, Locale> resolved = new BoundedCache<>(MAX_CACHED);
+	private final BoundedCache<Locale, Locale> mapped = new BoundedCache<>(MAX_CACHED);
+
+	public AcceptLanguageResolver(@NonNull final LocaleProperties props) {
+		this.defaultLocale = props.getDefaultLocale();
+		List<Locale> supported = props.getSupported().isEmpty() ? bundleLocales(props.getBasenames()) : props.getSupported();
+		this.candidates = candidates(supported);
+	}
+
+	/**
+	 * @param header value of the 'Accept-Language' header
+	 * @return the supported locale the client prefers, or the default one
+	 */
+	@NonNull
+	public Locale resolve(@Nullable final String header) {
+		if (header == null || header.isEmpty()) {
+			return getDefaultLocale();
+		}
+		Locale locale = resolved.get(header);
+		if (locale == null) {
+			locale = select(header);
+			resolved.put(header, locale);
+		}
+		return locale;
+	}
+
+	/**
+	 * @param requested locale of the request, e.g. resolved by the locale resolver of the application
+	 * @return the supported locale closest to the requested one, or the default one
+	 */
+	@NonNull
+	public Locale resolve(@NonNull final Locale requested) {
+		Locale locale = mapped.get(requested);
+		if (locale == null) {
+			locale = lookup(requested.toLanguageTag().toLowerCase(Locale.ROOT));
+			if (locale == null) {
+				locale = getDefaultLocale();
+			}
+			mapped.put(requested, locale);
+		}
+		return locale;
+	}
+
+	@NonNull
+	public Locale getDefaultLocale() {
+		return defaultLocale != null ? defaultLocale : Locale.getDefault();
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@NonNull
+	private Locale select(@NonNull final String header) {
+		List<Locale.LanguageRange> ranges;
+		try {
+			ranges = Locale.LanguageRange.parse(header);
+		} catch (IllegalArgumentException e) {
+			return getDefaultLocale();
+		}
+
+		// the ranges are sorted by their weights
+		for (Locale.LanguageRange range : ranges) {
+			String tag = range.getRange();
+			if (range.getWeight() == 0 || "*".equals(tag)) {
+				continue;
+			}
+			Locale locale = lookup(tag);
+			if (locale != null) {
+				return locale;
+			}
+		}
+		return getDefaultLocale();
+	}
+
+	/**
+	 * @param tag lowercase language tag
+	 * @return the supported locale of the tag or of its fallback chain, or null if there is no such locale
+	 */
+	@Nullable
+	private Locale lookup(@NonNull final String tag) {
+		for (String candidate = tag; !candidate.isEmpty(); candidate = parentOf(candidate)) {
+			Locale locale = candidates.get(candidate);
+			if (locale != null) {
+				return locale;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the locales of the bundles of the given base names on the classpath, e.g. 'ru' of 'messages_ru.properties'
+	 */
+	@NonNull
+	private static List<Locale> bundleLocales(@NonNull final List<String> basenames) {
+		var resolver = new PathMatchingResourcePatternResolver();
+		Set<Locale> result = new LinkedHashSet<>();
+		for (String basename : basenames) {
+			String prefix = StringUtils.getFilename(basename) + "_";
+			try {
+				for (Resource resource : resolver.getResources("classpath*:" + basename + "_*.properties")) {
+					String filename = resource.getFilename();
+					if (filename != null && filename.startsWith(prefix)) {
+						Locale locale = StringUtils.parseLocale(StringUtils.stripFilenameExtension(filename.substring(prefix.length())));
+						if (locale != null && !locale.getLanguage().isEmpty()) {
+							result.add(locale);
+						}
+					}
+				}
+			} catch (IOException | IllegalArgumentException e) {
+				log.warn("[w] Failed to find the locales of message bundle '{}': {}", basename, e.toString());
+			}
+		}
+		log.debug("[d] Locales of the message bundles: {}", result);
+		return new ArrayList<>(result);
+	}
+
+	/**
+	 * @return the map of the language tags of the fallback chains of the given locales to the locales,
+	 * the more specific and the earlier locale wins, e.g. for 'ru-RU' and 'en': 'ru-ru' -> 'ru-RU', 'ru' -> 'ru-RU', 'en' -> 'en'
+	 */
+	@NonNull
+	private static Map<String, Locale> candidates(@NonNull final List<Locale> supported) {
+		Map<String, Locale> result = new HashMap<>();
+		for (Locale locale : supported) {
+			result.put(locale.toLanguageTag().toLowerCase(Locale.ROOT), locale);
+		}
+		for (Locale locale : supported) {
+			String tag = locale.toLanguageTag().toLowerCase(Locale.ROOT);
+			for (String parent = parentOf(tag); !parent.isEmpty(); parent = parentOf(parent)) {
+				result.putIfAbsent(parent, locale);
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	/**
+	 * @return the language tag without its last subtag, e.g. 'ru' for 'ru-ru', or the empty string for 'ru'
+	 */
+	@NonNull
+	private static String parentOf(@NonNull final String tag) {
+		int dash = tag.lastIndexOf('-');
+		return dash > 0 ? tag.substring(0, dash) : "";
+	}
+}
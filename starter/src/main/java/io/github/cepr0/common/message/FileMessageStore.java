@@ -0,0 +1,109 @@
+package io.github.cepr0.common.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * {@link MessageStore} of the properties files, which works offline: the messages of a tenant are read from its
+ * subdirectory, e.g. 'tenants/acme/messages_ru.properties', and the bundles of the fallback chain of the locale
+ * are merged the same way as {@link ReloadableMessageStore} does it.
+ * <p/>
+ * The version of the messages is made of the sizes and modification times of the files, so the unchanged messages
+ * cost only the reading of the file attributes. The tenants which are not valid directory names have no messages.
+ */
+@Slf4j
+public class FileMessageStore implements MessageStore {
+
+	private static final String EXTENSION = ".properties";
+	private static final Pattern TENANT = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+	private static final Messages NO_MESSAGES = new Messages("", Map.of());
+
+	private final Path directory;
+	private final List<String> basenames;
+
+	public FileMessageStore(@NonNull final MessageStoreProperties props) {
+		this.directory = props.getDirectory().toAbsolutePath().normalize();
+		this.basenames = List.copyOf(props.getBasenames());
+		if (!Files.isDirectory(directory)) {
+			log.warn("[w] Tenant message directory {} is not found, the tenants have no messages", directory);
+		}
+	}
+
+	@Nullable
+	@Override
+	public Messages load(@NonNull final String tenant, @NonNull final Locale locale, @Nullable final String version) throws IOException {
+		if (!TENANT.matcher(tenant).matches() || tenant.contains("..")) {
+			return NO_MESSAGES.getVersion().equals(version) ? null : NO_MESSAGES;
+		}
+
+		List<Path> files = files(directory.resolve(tenant), locale);
+		StringBuilder current = new StringBuilder();
+		for (Path file : files) {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			current.append(file.getFileName()).append(':')
+					.append(attributes.size()).append(':')
+					.append(attributes.lastModifiedTime().toMillis()).append(';');
+		}
+		if (current.toString().equals(version)) {
+			return null;
+		}
+
+		Map<String, String> messages = new HashMap<>();
+		for (Path file : files) {
+			load(file).forEach(messages::putIfAbsent);
+		}
+		log.debug("[d] {} messages of tenant '{}' in '{}' are loaded from {}", messages.size(), tenant, locale, files);
+		return new Messages(current.toString(), Map.copyOf(messages));
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * @return existing bundle files of the tenant, the most specific one first
+	 */
+	@NonNull
+	private List<Path> files(@NonNull final Path tenantDirectory, @NonNull final Locale locale) {
+		List<Path> result = new ArrayList<>();
+		if (!Files.isDirectory(tenantDirectory)) {
+			return result;
+		}
+		List<String> suffixes = ReloadableMessageStore.localeSuffixes(locale);
+		for (String basename : basenames) {
+			for (String suffix : suffixes) {
+				Path file = tenantDirectory.resolve(basename + suffix + EXTENSION);
+				if (Files.isRegularFile(file)) {
+					result.add(file);
+				}
+			}
+		}
+		return result;
+	}
+
+	@NonNull
+	private static Map<String, String> load(@NonNull final Path file) throws IOException {
+		var properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Malformed message bundle " + file, e);
+		}
+		Map<String, String> result = new HashMap<>();
+		properties.forEach((key, value) -> result.put((String) key, (String) value));
+		return result;
+	}
+}
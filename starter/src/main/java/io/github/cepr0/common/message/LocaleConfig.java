@@ -0,0 +1,22 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link AcceptLanguageResolver} of the error rendering. It doesn't replace the locale resolver of the application:
+ * the {@link MessageProvider} maps the locale resolved by the application to a supported one, the reactive error handler
+ * and the filters, which run before the dispatcher, resolve the 'Accept-Language' header with it directly.
+ */
+@Configuration
+@EnableConfigurationProperties(LocaleProperties.class)
+public class LocaleConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	AcceptLanguageResolver acceptLanguageResolver(LocaleProperties props) {
+		return new AcceptLanguageResolver(props);
+	}
+}
@@ -0,0 +1,33 @@
+package io.github.cepr0.common.message;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Locale resolution settings, bound to the {@code locale.*} properties.
+ */
+@Data
+@ConfigurationProperties("locale")
+public class LocaleProperties {
+
+	/**
+	 * Locales of the message bundles. The locale of the request is mapped to one of them,
+	 * if empty - to one of the locales of the bundles of the {@link #basenames} found on the classpath
+	 */
+	private List<Locale> supported = new ArrayList<>();
+
+	/**
+	 * Base names of the message bundles, which locales are supported if the supported locales are not set
+	 */
+	private List<String> basenames = new ArrayList<>(List.of("messages", "common-messages"));
+
+	/**
+	 * Locale of the requests without the 'Accept-Language' header, or with no supported locales in it,
+	 * the system default one if not set
+	 */
+	private Locale defaultLocale;
+}
@@ -0,0 +1,32 @@
+package io.github.cepr0.common.message;
+
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+/**
+ * Catalog of the {@link MessageCode}s of one message bundle. The codes of a catalog have dense ids from 0 to size - 1,
+ * so {@link MessageProvider} keeps their resolved messages in arrays indexed by id.
+ */
+@Getter
+public final class MessageCatalog {
+
+	/**
+	 * Base name of the bundle
+	 */
+	private final String name;
+
+	/**
+	 * Number of the codes
+	 */
+	private final int size;
+
+	public MessageCatalog(@NonNull final String name, final int size) {
+		this.name = name;
+		this.size = size;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,56 @@
+package io.github.cepr0.common.message;
+
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+/**
+ * Message code of a {@link MessageCatalog}, with the id in the catalog and the number of the message arguments.
+ * The codes are generated from the message bundles at build time, see 'src/build/ErrorCodeGenerator.java'.
+ * <p/>
+ * The codes with up to 3 arguments are the instances of {@link Args0} - {@link Args3}, so the methods accepting them
+ * check the number of the arguments at compile time and don't need a varargs array.
+ */
+@Getter
+public class MessageCode {
+
+	private final MessageCatalog catalog;
+	private final int id;
+	private final String code;
+	private final int arity;
+
+	public MessageCode(@NonNull final MessageCatalog catalog, final int id, @NonNull final String code, final int arity) {
+		this.catalog = catalog;
+		this.id = id;
+		this.code = code;
+		this.arity = arity;
+	}
+
+	@Override
+	public String toString() {
+		return code;
+	}
+
+	public static final class Args0 extends MessageCode {
+		public Args0(@NonNull final MessageCatalog catalog, final int id, @NonNull final String code) {
+			super(catalog, id, code, 0);
+		}
+	}
+
+	public static final class Args1 extends MessageCode {
+		public Args1(@NonNull final MessageCatalog catalog, final int id, @NonNull final String code) {
+			super(catalog, id, code, 1);
+		}
+	}
+
+	public static final class Args2 extends MessageCode {
+		public Args2(@NonNull final MessageCatalog catalog, final int id, @NonNull final String code) {
+			super(catalog, id, code, 2);
+		}
+	}
+
+	public static final class Args3 extends MessageCode {
+		public Args3(@NonNull final MessageCatalog catalog, final int id, @NonNull final String code) {
+			super(catalog, id, code, 3);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+@Configuration
+@AutoConfigureAfter({MessageSourceAutoConfiguration.class, MessageReloadConfig.class, MessageStoreConfig.class, LocaleConfig.class})
+public class MessageConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	MessageProvider messageProvider(
+			HierarchicalMessageSource messageSource,
+			ObjectProvider<MessageNearCache> nearCache,
+			ObjectProvider<AcceptLanguageResolver> localeResolver
+	) {
+
+		ResourceBundleMessageSource bundleMessageSource = new ResourceBundleMessageSource();
+		bundleMessageSource.setBasename("common-messages");
+		lastOf(messageSource).setParentMessageSource(bundleMessageSource);
+
+		return new MessageProvider(messageSource, nearCache.getIfAvailable(), localeResolver.getIfAvailable());
+	}
+
+	/**
+	 * @return the last message source of the hierarchy, e.g. the bundled messages of the {@link ReloadableMessageStore}
+	 */
+	private static HierarchicalMessageSource lastOf(HierarchicalMessageSource messageSource) {
+		HierarchicalMessageSource result = messageSource;
+		while (result.getParentMessageSource() instanceof HierarchicalMessageSource) {
+			result = (HierarchicalMessageSource) result.getParentMessageSource();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,209 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.NonNull;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of the messages of the {@link MessageStore}: an immutable versioned snapshot per (tenant, locale),
+ * compiled to the {@link MessageTemplate}s, which is read by the request threads without locks.
+ * <p/>
+ * The lookups never wait for the store. The first lookup of a tenant in a locale gets no overrides and schedules
+ * the load; a snapshot older than the TTL is still served while it's refreshed by the background thread,
+ * and the store returns nothing but the version if the messages are not changed. When the store is unavailable,
+ * the snapshot loaded before is kept until the next refresh.
+ * <p/>
+ * The tenant usually comes from the client, e.g. a request header, so it's cached only when the store has messages
+ * of it: a new tenant is probed by the background thread first, and the tenant without messages is remembered
+ * as unknown till the TTL expires. Both the tenants and the unknown ones are bounded, the ones not used recently
+ * are evicted, and the number of the probes in flight is limited.
+ */
+@Slf4j
+public class MessageNearCache implements DisposableBean {
+
+	/**
+	 * Max number of the new tenants probed at the same time, the lookups of the other ones get no overrides
+	 */
+	private static final int MAX_PROBES = 64;
+
+	private final MessageStore store;
+	private final MessageTenantResolver tenantResolver;
+	private final long ttlNanos;
+
+	private final BoundedCache<String, Map<Locale, Entry>> tenants;
+	private final BoundedCache<String, AtomicLong> unknownTenants;
+	private final Set<String> probes = ConcurrentHashMap.newKeySet();
+	private final ExecutorService refresher = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "message-store");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public MessageNearCache(
+			@NonNull final MessageStore store,
+			@NonNull final MessageTenantResolver tenantResolver,
+			@NonNull final MessageStoreProperties props
+	) {
+		this.store = store;
+		this.tenantResolver = tenantResolver;
+		this.ttlNanos = props.getTtl().toNanos();
+		this.tenants = new BoundedCache<>(props.getMaxTenants());
+		this.unknownTenants = new BoundedCache<>(props.getMaxTenants());
+	}
+
+	/**
+	 * @return versions of the loaded messages by tenant and locale, e.g. to check that a change has reached the instance
+	 */
+	@NonNull
+	public Map<String, Map<Locale, String>> getVersions() {
+		Map<String, Map<Locale, String>> result = new HashMap<>();
+		tenants.forEach((tenant, tenantEntries) -> tenantEntries.forEach((locale, entry) -> {
+			if (entry.version != null) {
+				result.computeIfAbsent(tenant, t -> new HashMap<>()).put(locale, entry.version);
+			}
+		}));
+		return result;
+	}
+
+	@Override
+	public void destroy() {
+		refresher.shutdownNow();
+	}
+
+	/**
+	 * @return the message overrides of the tenant of the current lookup, empty if there is no tenant,
+	 * or its messages are not loaded yet
+	 */
+	@NonNull
+	MessageOverrides getOverrides(@NonNull final Locale locale) {
+		String tenant = tenantResolver.resolveTenant();
+		return tenant != null ? getOverrides(tenant, locale) : MessageOverrides.NONE;
+	}
+
+	@NonNull
+	MessageOverrides getOverrides(@NonNull final String tenant, @NonNull final Locale locale) {
+		Map<Locale, Entry> tenantEntries = tenants.get(tenant);
+		if (tenantEntries == null) {
+			probe(tenant, locale);
+			return MessageOverrides.NONE;
+		}
+		Entry entry = tenantEntries.get(locale);
+		if (entry == null) {
+			entry = tenantEntries.computeIfAbsent(locale, l -> new Entry(tenant, l));
+		}
+
+		if (System.nanoTime() - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true)) {
+			scheduleRefresh(entry);
+		}
+		return entry.overrides;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Schedules the probe of the tenant which is not cached, unless it's known to have no messages
+	 * or is being probed already
+	 */
+	private void probe(@NonNull final String tenant, @NonNull final Locale locale) {
+		AtomicLong retryAt = unknownTenants.get(tenant);
+		if (retryAt != null && System.nanoTime() - retryAt.get() < 0) {
+			return;
+		}
+		if (probes.size() >= MAX_PROBES || !probes.add(tenant)) {
+			return;
+		}
+		try {
+			refresher.execute(() -> probe(new Entry(tenant, locale)));
+		} catch (RejectedExecutionException e) {
+			probes.remove(tenant); // the cache is destroyed
+		}
+	}
+
+	/**
+	 * Loads the messages of the new tenant, and caches the tenant only if it has any
+	 */
+	private void probe(@NonNull final Entry entry) {
+		try {
+			refresh(entry);
+			if (!entry.overrides.isEmpty()) {
+				Map<Locale, Entry> tenantEntries = new ConcurrentHashMap<>();
+				tenantEntries.put(entry.locale, entry);
+				tenants.put(entry.tenant, tenantEntries);
+			} else {
+				long retryAt = System.nanoTime() + ttlNanos;
+				AtomicLong unknown = unknownTenants.get(entry.tenant);
+				if (unknown != null) {
+					unknown.set(retryAt);
+				} else {
+					unknownTenants.put(entry.tenant, new AtomicLong(retryAt));
+				}
+			}
+		} finally {
+			probes.remove(entry.tenant);
+		}
+	}
+
+	private void scheduleRefresh(@NonNull final Entry entry) {
+		try {
+			refresher.execute(() -> refresh(entry));
+		} catch (RejectedExecutionException e) {
+			entry.refreshing.set(false); // the cache is destroyed
+		}
+	}
+
+	private void refresh(@NonNull final Entry entry) {
+		try {
+			MessageStore.Messages loaded = store.load(entry.tenant, entry.locale, entry.version);
+			if (loaded != null) {
+				entry.overrides = compile(loaded.getMessages(), entry.locale);
+				entry.version = loaded.getVersion();
+				log.debug("[d] Messages of tenant '{}' in '{}' are refreshed, version: {}", entry.tenant, entry.locale, entry.version);
+			}
+		} catch (Exception e) {
+			log.warn("[w] Failed to refresh the messages of tenant '{}' in '{}', the loaded ones are kept: {}", entry.tenant, entry.locale, e.toString());
+		} finally {
+			entry.refreshAt = System.nanoTime() + ttlNanos;
+			entry.refreshing.set(false);
+		}
+	}
+
+	@NonNull
+	private static MessageOverrides compile(@NonNull final Map<String, String> messages, @NonNull final Locale locale) {
+		if (messages.isEmpty()) {
+			return MessageOverrides.NONE;
+		}
+		Map<String, MessageTemplate> result = new HashMap<>();
+		messages.forEach((code, message) -> result.put(code, new MessageTemplate(message, locale)));
+		return new MessageOverrides(Map.copyOf(result));
+	}
+
+	/**
+	 * Snapshot of the messages of a tenant in a locale, replaced as a whole by the refresher thread
+	 */
+	private static final class Entry {
+		private final String tenant;
+		private final Locale locale;
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private volatile MessageOverrides overrides = MessageOverrides.NONE;
+		private volatile String version;
+		private volatile long refreshAt = System.nanoTime();
+
+		private Entry(final String tenant, final Locale locale) {
+			this.tenant = tenant;
+			this.locale = locale;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BoundedCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the compiled messages of a tenant in a locale, which override the application ones.
+ * <p/>
+ * The index of the first overridden code of a {@link org.springframework.context.MessageSourceResolvable}
+ * is cached per codes together with the snapshot, so a resolvable without overrides costs a single probe
+ * as well as a single code does.
+ */
+final class MessageOverrides {
+
+	static final MessageOverrides NONE = new MessageOverrides(Map.of());
+
+	/**
+	 * Max number of the cached codes of the resolvables per snapshot
+	 */
+	private static final int MAX_CACHED_RESOLVABLES = 1024;
+
+	private final Map<String, MessageTemplate> templates;
+	private final BoundedCache<List<String>, Integer> indexes;
+
+	MessageOverrides(@NonNull final Map<String, MessageTemplate> templates) {
+		this.templates = templates;
+		this.indexes = templates.isEmpty() ? null : new BoundedCache<>(MAX_CACHED_RESOLVABLES);
+	}
+
+	boolean isEmpty() {
+		return indexes == null;
+	}
+
+	@Nullable
+	MessageTemplate get(@NonNull final String code) {
+		return templates.get(code);
+	}
+
+	/**
+	 * @return index of the first overridden code, or -1 if none of them is overridden
+	 */
+	int indexOf(@NonNull final String[] codes) {
+		if (indexes == null) {
+			return -1;
+		}
+		Integer index = indexes.get(Arrays.asList(codes));
+		if (index == null) {
+			index = -1;
+			for (int i = 0; i < codes.length; i++) {
+				if (templates.containsKey(codes[i])) {
+					index = i;
+					break;
+				}
+			}
+			indexes.put(Arrays.asList(codes.clone()), index);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,420 @@
+package io.github.cepr0.common.message;
+
+import io.github.cepr0.common.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provides messages of the codes from the {@link HierarchicalMessageSource}.
+ * <p/>
+ * Resolved messages are cached per (code, locale) together with their compiled formats, as well as the codes
+ * which can't be resolved, so repeated lookups of the same code don't touch the message source.
+ * The messages of the generated {@link MessageCode}s are cached in arrays indexed by the code id.
+ * The {@link MessageSourceResolvable}s, e.g. the field errors with their codes from the most specific to the most general one,
+ * are resolved without {@link org.springframework.context.NoSuchMessageException}s: the first resolved code
+ * is cached per (codes, locale), as well as the codes none of which can be resolved; the arguments are interpolated after that.
+ * The cache is cleared on {@link MessagesChangedEvent}.
+ * <p/>
+ * With the {@link MessageNearCache}, the messages of the tenant of the lookup override the cached ones.
+ * The {@link MessageOverrides} of the tenant are resolved once per lookup, the arguments included, and are probed
+ * on top of the cached templates: a code, or the codes of a resolvable, without an override costs a single probe
+ * of the overrides.
+ */
+@Slf4j
+public class MessageProvider {
+
+	private static final MessageCode.Args0 MSG_CODE_NOT_FOUND = CommonErrorCode.MESSAGE_CODE_NOT_FOUND;
+
+	/**
+	 * Max number of the cached codes per locale - protects the cache from the messages passed instead of the codes,
+	 * the codes which are not used recently are evicted
+	 */
+	private static final int MAX_CACHED_CODES = 4096;
+
+	/**
+	 * Max number of the locales of the cached codes - protects the cache from the locales sent by the clients,
+	 * the locales which are not used recently are evicted together with their codes
+	 */
+	private static final int MAX_CACHED_LOCALES = 32;
+
+	private final HierarchicalMessageSource messageSource;
+	private final MessageNearCache nearCache;
+	private final AcceptLanguageResolver localeResolver;
+
+	private final BoundedCache<Locale, BoundedCache<String, MessageTemplate>> templates = new BoundedCache<>(MAX_CACHED_LOCALES);
+	private final BoundedCache<Locale, Map<MessageCatalog, AtomicReferenceArray<MessageTemplate>>> catalogTemplates = new BoundedCache<>(MAX_CACHED_LOCALES);
+	private final BoundedCache<Locale, BoundedCache<List<String>, Resolution>> resolvableTemplates = new BoundedCache<>(MAX_CACHED_LOCALES);
+	private final BoundedCache<Locale, BoundedCache<String, MessageTemplate>> defaultTemplates = new BoundedCache<>(MAX_CACHED_LOCALES);
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+
+	public MessageProvider(@NonNull final HierarchicalMessageSource messageSource) {
+		this(messageSource, null);
+	}
+
+	public MessageProvider(@NonNull final HierarchicalMessageSource messageSource, @Nullable final MessageNearCache nearCache) {
+		this(messageSource, nearCache, null);
+	}
+
+	/**
+	 * @param localeResolver maps the locale of the request to a supported one before the lookups,
+	 * so the per-locale caches are bounded by the supported locales
+	 */
+	public MessageProvider(
+			@NonNull final HierarchicalMessageSource messageSource,
+			@Nullable final MessageNearCache nearCache,
+			@Nullable final AcceptLanguageResolver localeResolver
+	) {
+		this.messageSource = messageSource;
+		this.nearCache = nearCache;
+		this.localeResolver = localeResolver;
+	}
+
+	/**
+	 * @return the locale of the localized messages: the locale of the request mapped to a supported one
+	 */
+	@NonNull
+	public Locale getLocale() {
+		Locale locale = LocaleContextHolder.getLocale();
+		return localeResolver != null ? localeResolver.resolve(locale) : locale;
+	}
+
+	@NonNull
+	public String getLocalizedMessage(@NonNull String codeOrMessage, Object... args) {
+		Locale locale = getLocale(); // provide the user locale
+		return getMessage(codeOrMessage, args, overrides(locale), locale);
+	}
+
+	@NonNull
+	public String getLocalizedMessage(@NonNull MessageCode.Args0 code) {
+		Locale locale = getLocale();
+		MessageOverrides overrides = overrides(locale);
+		MessageTemplate template = getTemplate(code, overrides, locale);
+		return template != MessageTemplate.UNRESOLVED ? template.getMessage() : getMessage(code.getCode(), null, overrides, locale);
+	}
+
+	@NonNull
+	public String getLocalizedMessage(@NonNull MessageCode code, Object... args) {
+		Locale locale = getLocale();
+		return getMessage(code, args, overrides(locale), locale);
+	}
+
+	/**
+	 * @return the message of the given code in the given locale, or null if the code can't be resolved
+	 */
+	@Nullable
+	public String findMessage(@NonNull MessageCode code, @NonNull Locale locale) {
+		MessageTemplate template = getTemplate(code, overrides(locale), locale);
+		return template != MessageTemplate.UNRESOLVED ? template.getMessage() : null;
+	}
+
+	/**
+	 * @return the message of the given code in the given locale, or null if the code can't be resolved
+	 */
+	@Nullable
+	public String findMessage(@NonNull String code, @NonNull Locale locale) {
+		MessageTemplate template = getTemplate(code, overrides(locale), locale);
+		return template != MessageTemplate.UNRESOLVED ? template.getMessage() : null;
+	}
+
+	@NonNull
+	public String getLocalizedMessage(@NonNull MessageSourceResolvable resolvable) {
+		Locale locale = getLocale();
+		String message = findMessage(resolvable, overrides(locale), locale);
+		return message != null ? message : getLocalizedMessage(MSG_CODE_NOT_FOUND);
+	}
+
+	public String getMessage(String codeOrMessage, Object... args) {
+		Locale locale = Locale.getDefault();
+		return getMessage(codeOrMessage, args, overrides(locale), locale);
+	}
+
+	public String getMessage(MessageCode code, Object... args) {
+		Locale locale = Locale.getDefault();
+		return getMessage(code, args, overrides(locale), locale);
+	}
+
+	public String getMessage(MessageSourceResolvable resolvable) {
+		Locale locale = Locale.getDefault();
+		String message = findMessage(resolvable, overrides(locale), locale);
+		return message != null ? message : getMessage(MSG_CODE_NOT_FOUND);
+	}
+
+	/**
+	 * @return true if the tenant of the current lookup overrides the message of the code,
+	 * so the message must not be shared with the other tenants, e.g. in a cache of the responses
+	 */
+	public boolean isOverridden(@NonNull final String code, @NonNull final Locale locale) {
+		return overrides(locale).get(code) != null;
+	}
+
+	/**
+	 * @return number of the message lookups served from the cache
+	 */
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * @return number of the message lookups which went to the message source
+	 */
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	@EventListener(MessagesChangedEvent.class)
+	public void clearCache() {
+		templates.clear();
+		catalogTemplates.clear();
+		resolvableTemplates.clear();
+		defaultTemplates.clear();
+		log.debug("[d] Message cache has been cleared");
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * @return the overrides of the tenant of the current lookup, empty without the near-cache
+	 */
+	@NonNull
+	private MessageOverrides overrides(@NonNull final Locale locale) {
+		return nearCache != null ? nearCache.getOverrides(locale) : MessageOverrides.NONE;
+	}
+
+	@NonNull
+	private String getMessage(
+			@NonNull final String codeOrMessage,
+			final Object[] args,
+			@NonNull final MessageOverrides overrides,
+			@NonNull final Locale locale
+	) {
+		MessageTemplate template = getTemplate(codeOrMessage, overrides, locale);
+		if (template == MessageTemplate.UNRESOLVED) {
+			return String.format(codeOrMessage, args); // provide a default message - in case when the 'codeOrMessage' can't be resolved
+		}
+		return template.format(resolveArgs(args, overrides, locale));
+	}
+
+	@NonNull
+	private String getMessage(
+			@NonNull final MessageCode code,
+			final Object[] args,
+			@NonNull final MessageOverrides overrides,
+			@NonNull final Locale locale
+	) {
+		MessageTemplate template = getTemplate(code, overrides, locale);
+		if (template == MessageTemplate.UNRESOLVED) {
+			return getMessage(code.getCode(), args, overrides, locale);
+		}
+		return template.format(resolveArgs(args, overrides, locale));
+	}
+
+	@NonNull
+	private MessageTemplate getTemplate(@NonNull final MessageCode code, @NonNull final MessageOverrides overrides, @NonNull final Locale locale) {
+		MessageTemplate override = overrides.get(code.getCode());
+		return override != null ? override : getCachedTemplate(code, locale);
+	}
+
+	@NonNull
+	private MessageTemplate getTemplate(@NonNull final String code, @NonNull final MessageOverrides overrides, @NonNull final Locale locale) {
+		MessageTemplate override = overrides.get(code);
+		return override != null ? override : getCachedTemplate(code, locale);
+	}
+
+	/**
+	 * @return the template from the array of the code catalog, or from the message source on the first lookup
+	 */
+	@NonNull
+	private MessageTemplate getCachedTemplate(@NonNull final MessageCode code, @NonNull final Locale locale) {
+		Map<MessageCatalog, AtomicReferenceArray<MessageTemplate>> localeCatalogs = catalogTemplates.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+		AtomicReferenceArray<MessageTemplate> catalog = localeCatalogs.get(code.getCatalog());
+		if (catalog == null) {
+			catalog = localeCatalogs.computeIfAbsent(code.getCatalog(), c -> new AtomicReferenceArray<>(c.getSize()));
+		}
+
+		MessageTemplate template = catalog.get(code.getId());
+		if (template != null) {
+			cacheHits.increment();
+			return template;
+		}
+		template = getCachedTemplate(code.getCode(), locale);
+		catalog.set(code.getId(), template);
+		return template;
+	}
+
+	@NonNull
+	private MessageTemplate getCachedTemplate(@NonNull final String code, @NonNull final Locale locale) {
+		BoundedCache<String, MessageTemplate> localeTemplates = templates.computeIfAbsent(locale, l -> new BoundedCache<>(MAX_CACHED_CODES));
+
+		MessageTemplate template = localeTemplates.get(code);
+		if (template != null) {
+			cacheHits.increment();
+			return template;
+		}
+
+		cacheMisses.increment();
+		String message = messageSource.getMessage(code, null, null, locale);
+		template = message != null ? new MessageTemplate(message, locale) : MessageTemplate.UNRESOLVED;
+		localeTemplates.put(code, template);
+		return template;
+	}
+
+	/**
+	 * Resolves the message of the first resolvable code, or renders the default message like the message source does it
+	 *
+	 * @return the message, or null if neither the codes nor the default message are present
+	 */
+	@Nullable
+	private String findMessage(
+			@NonNull final MessageSourceResolvable resolvable,
+			@NonNull final MessageOverrides overrides,
+			@NonNull final Locale locale
+	) {
+		MessageTemplate template = getTemplate(resolvable.getCodes(), overrides, locale);
+		if (template != MessageTemplate.UNRESOLVED) {
+			return template.format(resolveArgs(resolvable.getArguments(), overrides, locale));
+		}
+		return renderDefaultMessage(resolvable, overrides, locale);
+	}
+
+	/**
+	 * @return the template of the first code which is overridden or can be resolved, or {@link MessageTemplate#UNRESOLVED}
+	 */
+	@NonNull
+	private MessageTemplate getTemplate(
+			@Nullable final String[] codes,
+			@NonNull final MessageOverrides overrides,
+			@NonNull final Locale locale
+	) {
+		if (codes == null || codes.length == 0) {
+			return MessageTemplate.UNRESOLVED;
+		}
+		if (codes.length == 1) {
+			return getTemplate(codes[0], overrides, locale);
+		}
+		Resolution resolution = getCachedResolution(codes, locale);
+		if (!overrides.isEmpty()) {
+			int index = overrides.indexOf(codes);
+			if (index >= 0 && index <= resolution.index) {
+				return overrides.get(codes[index]);
+			}
+		}
+		return resolution.template;
+	}
+
+	/**
+	 * @return the template of the first code which can be resolved by the message source, and the index of the code
+	 */
+	@NonNull
+	private Resolution getCachedResolution(@NonNull final String[] codes, @NonNull final Locale locale) {
+		BoundedCache<List<String>, Resolution> localeResolutions = resolvableTemplates.computeIfAbsent(locale, l -> new BoundedCache<>(MAX_CACHED_CODES));
+
+		Resolution resolution = localeResolutions.get(Arrays.asList(codes));
+		if (resolution != null) {
+			cacheHits.increment();
+			return resolution;
+		}
+
+		resolution = new Resolution(MessageTemplate.UNRESOLVED, codes.length);
+		for (int i = 0; i < codes.length; i++) {
+			MessageTemplate candidate = getCachedTemplate(codes[i], locale);
+			if (candidate != MessageTemplate.UNRESOLVED) {
+				resolution = new Resolution(candidate, i);
+				break;
+			}
+		}
+		localeResolutions.put(Arrays.asList(codes.clone()), resolution);
+		return resolution;
+	}
+
+	/**
+	 * Renders the default message of the resolvable as {@link org.springframework.context.support.AbstractMessageSource} does:
+	 * the message equal to the first code or without arguments is returned as is, otherwise it's formatted.
+	 * The messages which are not valid formats, e.g. the interpolated messages with braces, are remembered and returned as is.
+	 */
+	@Nullable
+	private String renderDefaultMessage(
+			@NonNull final MessageSourceResolvable resolvable,
+			@NonNull final MessageOverrides overrides,
+			@NonNull final Locale locale
+	) {
+		String defaultMessage = resolvable.getDefaultMessage();
+		if (defaultMessage == null) {
+			return null;
+		}
+		String[] codes = resolvable.getCodes();
+		Object[] args = resolvable.getArguments();
+		if (args == null || args.length == 0 || (codes != null && codes.length > 0 && defaultMessage.equals(codes[0]))) {
+			return defaultMessage;
+		}
+
+		BoundedCache<String, MessageTemplate> localeTemplates = defaultTemplates.computeIfAbsent(locale, l -> new BoundedCache<>(MAX_CACHED_CODES));
+		MessageTemplate template = localeTemplates.get(defaultMessage);
+		if (template == null) {
+			template = isValidFormat(defaultMessage, locale) ? new MessageTemplate(defaultMessage, locale) : MessageTemplate.UNRESOLVED;
+			localeTemplates.put(defaultMessage, template);
+		}
+		return template != MessageTemplate.UNRESOLVED ? template.format(resolveArgs(args, overrides, locale)) : defaultMessage;
+	}
+
+	private static boolean isValidFormat(@NonNull final String message, @NonNull final Locale locale) {
+		try {
+			new MessageFormat(message, locale);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Resolves the {@link MessageSourceResolvable} arguments like the message source does it.
+	 * The argument which can't be resolved is replaced by its last, most general, code.
+	 */
+	private Object[] resolveArgs(final Object[] args, @NonNull final MessageOverrides overrides, @NonNull final Locale locale) {
+		if (args == null) {
+			return null;
+		}
+		Object[] resolved = args;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] instanceof MessageSourceResolvable) {
+				if (resolved == args) {
+					resolved = args.clone();
+				}
+				var arg = (MessageSourceResolvable) args[i];
+				String message = findMessage(arg, overrides, locale);
+				if (message == null && arg.getCodes() != null && arg.getCodes().length > 0) {
+					message = arg.getCodes()[arg.getCodes().length - 1];
+				}
+				resolved[i] = message;
+			}
+		}
+		return resolved;
+	}
+
+	/**
+	 * Template of the first resolved code of a resolvable, the index is the number of the codes if none is resolved
+	 */
+	private static final class Resolution {
+		private final MessageTemplate template;
+		private final int index;
+
+		private Resolution(final MessageTemplate template, final int index) {
+			this.template = template;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.AbstractApplicationContext;
+
+/**
+ * Replaces the application message source with the {@link ReloadableMessageStore} if 'message-reload.enabled' is true
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "message-reload", name = "enabled", havingValue = "true")
+@AutoConfigureBefore(MessageSourceAutoConfiguration.class)
+@EnableConfigurationProperties(MessageReloadProperties.class)
+public class MessageReloadConfig {
+
+	@Bean(name = AbstractApplicationContext.MESSAGE_SOURCE_BEAN_NAME)
+	ReloadableMessageStore messageSource(MessageReloadProperties props, ApplicationEventPublisher publisher) {
+		return new ReloadableMessageStore(props, publisher);
+	}
+}
@@ -0,0 +1,38 @@
+package io.github.cepr0.common.message;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the {@link ReloadableMessageStore}, bound to the {@code message-reload.*} properties.
+ */
+@Data
+@ConfigurationProperties("message-reload")
+public class MessageReloadProperties {
+
+	/**
+	 * Override the bundled messages with the ones of the external directory, and reload them on change
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Directory of the external message bundles, e.g. 'messages_ru.properties'
+	 */
+	private Path directory = Paths.get("messages");
+
+	/**
+	 * Base names of the external message bundles, in the order of their lookup
+	 */
+	private List<String> basenames = new ArrayList<>(List.of("messages", "common-messages"));
+
+	/**
+	 * Time to collect the changes of the files before reloading them, so a burst of changes is reloaded once
+	 */
+	private Duration debounce = Duration.ofMillis(200);
+}
@@ -0,0 +1,44 @@
+package io.github.cepr0.common.message;
+
+import lombok.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Store of the messages managed per tenant, e.g. a central message service, a database or {@link FileMessageStore}.
+ * The messages of a tenant override the application and common ones of the same codes.
+ * <p/>
+ * The store is read only by the background thread of the {@link MessageNearCache}, so a slow or unavailable store
+ * never delays the lookups of the messages.
+ */
+public interface MessageStore {
+
+	/**
+	 * Loads the messages of the tenant in the locale, the messages of its fallback locales included,
+	 * e.g. the ones of 'ru' for 'ru_RU'.
+	 *
+	 * @param version version of the messages loaded before, null on the first load
+	 * @return the messages of the tenant, empty if it has no messages, or null if they are still of the given version
+	 * @throws IOException if the store is unavailable, then the messages loaded before are kept
+	 */
+	@Nullable
+	Messages load(@NonNull String tenant, @NonNull Locale locale, @Nullable String version) throws IOException;
+
+	/**
+	 * Immutable versioned snapshot of the messages of a tenant in a locale
+	 */
+	@Value
+	class Messages {
+
+		/**
+		 * Opaque version of the messages, it's changed when any of them is changed
+		 */
+		private String version;
+
+		private Map<String, String> messages;
+	}
+}
@@ -0,0 +1,60 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Overrides the application messages with the ones of the tenants if 'message-store.enabled' is true.
+ * The {@link FileMessageStore} is replaced by a {@link MessageStore} bean of the application, e.g. the client
+ * of a central message service, and the tenant resolution - by a {@link MessageTenantResolver} bean.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "message-store", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(MessageStoreProperties.class)
+public class MessageStoreConfig {
+
+	@Bean
+	@ConditionalOnMissingBean
+	MessageStore messageStore(MessageStoreProperties props) {
+		return new FileMessageStore(props);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	MessageNearCache messageNearCache(MessageStore store, ObjectProvider<MessageTenantResolver> tenantResolver, MessageStoreProperties props) {
+		return new MessageNearCache(store, tenantResolver.getIfAvailable(() -> MessageTenantResolver.NONE), props);
+	}
+
+	@Configuration
+	@ConditionalOnWebApplication(type = SERVLET)
+	@ConditionalOnClass(ServletRequestAttributes.class)
+	static class Servlet {
+
+		/**
+		 * The tenant is taken from the header of the request bound to the current thread,
+		 * so the lookups of the other threads have no tenant unless the application provides its own resolver
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		MessageTenantResolver messageTenantResolver(MessageStoreProperties props) {
+			String header = props.getTenantHeader();
+			return () -> {
+				RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+				return attributes instanceof ServletRequestAttributes
+						? ((ServletRequestAttributes) attributes).getRequest().getHeader(header)
+						: null;
+			};
+		}
+	}
+}
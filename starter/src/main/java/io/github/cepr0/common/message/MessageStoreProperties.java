@@ -0,0 +1,49 @@
+package io.github.cepr0.common.message;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the tenant messages, bound to the {@code message-store.*} properties.
+ */
+@Data
+@ConfigurationProperties("message-store")
+public class MessageStoreProperties {
+
+	/**
+	 * Override the application messages with the ones of the tenants from the {@link MessageStore}
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Directory of the {@link FileMessageStore} with a subdirectory per tenant, e.g. 'tenants/acme/messages_ru.properties'
+	 */
+	private Path directory = Paths.get("tenants");
+
+	/**
+	 * Base names of the bundles of the {@link FileMessageStore}, in the order of their lookup
+	 */
+	private List<String> basenames = new ArrayList<>(List.of("messages", "common-messages"));
+
+	/**
+	 * Time to use the messages of a tenant before they are refreshed in the background
+	 */
+	private Duration ttl = Duration.ofMinutes(1);
+
+	/**
+	 * Max number of the tenants whose messages are cached, the ones not used recently are evicted.
+	 * The same number of the tenants unknown to the store is remembered till the next TTL.
+	 */
+	private int maxTenants = 1024;
+
+	/**
+	 * Request header of the tenant of the servlet applications
+	 */
+	private String tenantHeader = "X-Tenant";
+}
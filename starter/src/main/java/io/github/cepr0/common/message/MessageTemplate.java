@@ -0,0 +1,47 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.lang.NonNull;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+/**
+ * Immutable resolved message of a code in a locale. The message is formatted the same way
+ * as {@link org.springframework.context.support.AbstractMessageSource} does it: returned as is when there are no arguments,
+ * otherwise with the {@link MessageFormat}, which is compiled once and cloned for each formatting,
+ * so formatting doesn't require a lock.
+ */
+final class MessageTemplate {
+
+	/**
+	 * Marks the codes which can't be resolved
+	 */
+	static final MessageTemplate UNRESOLVED = new MessageTemplate(null, null);
+
+	private final String message;
+	private final Locale locale;
+	private volatile MessageFormat format;
+
+	MessageTemplate(final String message, final Locale locale) {
+		this.message = message;
+		this.locale = locale;
+	}
+
+	@NonNull
+	String getMessage() {
+		return message;
+	}
+
+	@NonNull
+	String format(final Object[] args) {
+		if (args == null || args.length == 0) {
+			return message;
+		}
+		MessageFormat prototype = format;
+		if (prototype == null) {
+			prototype = new MessageFormat(message, locale);
+			format = prototype;
+		}
+		return ((MessageFormat) prototype.clone()).format(args);
+	}
+}
@@ -0,0 +1,21 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the tenant of the current message lookup, e.g. from the request bound to the current thread
+ */
+@FunctionalInterface
+public interface MessageTenantResolver {
+
+	/**
+	 * Lookups without a tenant, they are served by the application and common messages only
+	 */
+	MessageTenantResolver NONE = () -> null;
+
+	/**
+	 * @return the tenant, or null if the lookup is not made on behalf of a tenant
+	 */
+	@Nullable
+	String resolveTenant();
+}
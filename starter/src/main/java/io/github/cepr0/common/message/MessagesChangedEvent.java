@@ -0,0 +1,13 @@
+package io.github.cepr0.common.message;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when message bundles have been changed, so that all the data derived from the messages must be invalidated.
+ */
+public class MessagesChangedEvent extends ApplicationEvent {
+
+	public MessagesChangedEvent(final Object source) {
+		super(source);
+	}
+}
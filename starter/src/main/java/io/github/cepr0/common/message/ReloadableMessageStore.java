@@ -0,0 +1,343 @@
+package io.github.cepr0.common.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Message source of the message bundles, which messages are overridden by the ones of the external directory,
+ * e.g. the messages of 'messages/messages_ru.properties' override the ones of 'classpath:messages_ru.properties'.
+ * <p/>
+ * The external bundles are parsed into the immutable snapshot, which is read by the request threads without locks.
+ * The messages of the fallback chain of a locale are merged into one map, so a message is resolved with a single lookup.
+ * The directory is watched by the {@link WatchService}: on change, only the changed bundles are parsed again,
+ * the new snapshot is published with a single swap of the reference, and {@link MessagesChangedEvent} is published,
+ * so the caches derived from the messages are cleared. A bundle which can't be parsed keeps its previous messages.
+ */
+@Slf4j
+public class ReloadableMessageStore extends AbstractMessageSource implements DisposableBean {
+
+	private static final String EXTENSION = ".properties";
+
+	private final Path directory;
+	private final List<String> basenames;
+	private final long debounceMs;
+	private final ApplicationEventPublisher publisher;
+
+	private final Map<String, Map<String, String>> classpathBundles = new ConcurrentHashMap<>();
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of()));
+	private final WatchService watchService;
+
+	public ReloadableMessageStore(@NonNull final MessageReloadProperties props, @NonNull final ApplicationEventPublisher publisher) {
+		this.directory = props.getDirectory().toAbsolutePath().normalize();
+		this.basenames = List.copyOf(props.getBasenames());
+		this.debounceMs = props.getDebounce().toMillis();
+		this.publisher = publisher;
+
+		if (!Files.isDirectory(directory)) {
+			log.warn("[w] Message directory {} is not found, the bundled messages are used", directory);
+			this.watchService = null;
+			return;
+		}
+
+		snapshot.set(new Snapshot(Map.copyOf(loadAll())));
+		this.watchService = watch();
+		log.info("[i] Messages are loaded from {}: {}", directory, snapshot.get().bundles.keySet());
+	}
+
+	/**
+	 * @return names of the loaded external bundles, e.g. 'messages_ru'
+	 */
+	@NonNull
+	public Set<String> getBundles() {
+		return snapshot.get().bundles.keySet();
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	@Nullable
+	@Override
+	protected String resolveCodeWithoutArguments(@NonNull final String code, @NonNull final Locale locale) {
+		return messages(locale).get(code);
+	}
+
+	@Nullable
+	@Override
+	protected MessageFormat resolveCode(@NonNull final String code, @NonNull final Locale locale) {
+		String message = resolveCodeWithoutArguments(code, locale);
+		return message != null ? createMessageFormat(message, locale) : null;
+	}
+
+// --------------------------------------------------------------------------------------------------------------------
+
+	@NonNull
+	private Map<String, Map<String, String>> loadAll() {
+		Map<String, Map<String, String>> result = new HashMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+			for (Path file : files) {
+				String bundle = bundleName(file.getFileName());
+				if (bundle != null) {
+					Map<String, String> messages = load(file);
+					if (messages != null) {
+						result.put(bundle, messages);
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.error("[!] Failed to list the message directory {}", directory, e);
+		}
+		return result;
+	}
+
+	/**
+	 * @return messages of the bundle file, or null if it can't be read
+	 */
+	@Nullable
+	private static Map<String, String> load(@NonNull final Path file) {
+		var properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IOException | IllegalArgumentException e) {
+			log.error("[!] Failed to read the message bundle {}: {}", file, e.toString());
+			return null;
+		}
+		return toMap(properties);
+	}
+
+	@Nullable
+	private WatchService watch() {
+		try {
+			WatchService service = directory.getFileSystem().newWatchService();
+			directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+			Thread thread = new Thread(() -> pollChanges(service), "message-reload");
+			thread.setDaemon(true);
+			thread.start();
+			return service;
+		} catch (IOException e) {
+			log.error("[!] Failed to watch the message directory {}, messages won't be reloaded", directory, e);
+			return null;
+		}
+	}
+
+	private void pollChanges(@NonNull final WatchService service) {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = service.take();
+				Set<String> changed = new HashSet<>();
+				boolean overflow = collect(key, changed);
+
+				// a file is usually written by a few events, wait for the rest of them
+				while ((key = service.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+					overflow |= collect(key, changed);
+				}
+				if (overflow) {
+					reloadAll();
+				} else if (!changed.isEmpty()) {
+					reload(changed);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// the store is destroyed
+		}
+	}
+
+	/**
+	 * Collects names of the changed bundles
+	 *
+	 * @return true if some events were lost
+	 */
+	private boolean collect(@NonNull final WatchKey key, @NonNull final Set<String> changed) {
+		boolean overflow = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW) {
+				overflow = true;
+				continue;
+			}
+			String bundle = bundleName((Path) event.context());
+			if (bundle != null) {
+				changed.add(bundle);
+			}
+		}
+		key.reset();
+		return overflow;
+	}
+
+	private void reload(@NonNull final Set<String> changed) {
+		Map<String, Map<String, String>> bundles = new HashMap<>(snapshot.get().bundles);
+		for (String bundle : changed) {
+			Path file = directory.resolve(bundle + EXTENSION);
+			if (!Files.exists(file)) {
+				bundles.remove(bundle);
+				continue;
+			}
+			Map<String, String> messages = load(file);
+			if (messages != null) {
+				bundles.put(bundle, messages);
+			}
+		}
+		publish(bundles, changed);
+	}
+
+	private void reloadAll() {
+		publish(loadAll(), snapshot.get().bundles.keySet());
+	}
+
+	private void publish(@NonNull final Map<String, Map<String, String>> bundles, @NonNull final Set<String> changed) {
+		snapshot.set(new Snapshot(Map.copyOf(bundles)));
+		log.info("[i] Message bundles are reloaded: {}", changed);
+		publisher.publishEvent(new MessagesChangedEvent(this));
+	}
+
+	/**
+	 * @return name of the bundle of the given file, e.g. 'messages_ru' of 'messages_ru.properties',
+	 * or null if it's not the file of the configured bundles
+	 */
+	@Nullable
+	private String bundleName(@NonNull final Path fileName) {
+		String name = fileName.toString();
+		if (!name.endsWith(EXTENSION)) {
+			return null;
+		}
+		String bundle = name.substring(0, name.length() - EXTENSION.length());
+		for (String basename : basenames) {
+			if (bundle.equals(basename) || bundle.startsWith(basename + "_")) {
+				return bundle;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return all messages of the given locale, so a message is resolved with a single lookup
+	 */
+	@NonNull
+	private Map<String, String> messages(@NonNull final Locale locale) {
+		Snapshot current = snapshot.get();
+		Map<String, String> messages = current.messages.get(locale);
+		if (messages == null) {
+			messages = current.messages.computeIfAbsent(locale, l -> flatten(current, l));
+		}
+		return messages;
+	}
+
+	/**
+	 * Merges the bundles of the fallback chain of the locale, the message of the most specific one wins:
+	 * 'messages_ru_RU', 'messages_ru', 'messages', 'common-messages_ru_RU', ...
+	 */
+	@NonNull
+	private Map<String, String> flatten(@NonNull final Snapshot current, @NonNull final Locale locale) {
+		List<String> suffixes = localeSuffixes(locale);
+		Map<String, String> result = new HashMap<>();
+		for (String basename : basenames) {
+			for (String suffix : suffixes) {
+				String name = basename + suffix;
+				Map<String, String> external = current.bundles.getOrDefault(name, Map.of());
+				Map<String, String> bundled = classpathBundles.computeIfAbsent(name, this::loadClasspath);
+				external.forEach(result::putIfAbsent);
+				bundled.forEach(result::putIfAbsent);
+			}
+		}
+		return Map.copyOf(result);
+	}
+
+	/**
+	 * @return suffixes of the bundle names of the fallback chain of the locale, from the most specific one:
+	 * '_ru_RU', '_ru', ''
+	 */
+	@NonNull
+	static List<String> localeSuffixes(@NonNull final Locale locale) {
+		List<String> suffixes = new ArrayList<>(4);
+		String language = locale.getLanguage();
+		String country = locale.getCountry();
+		String variant = locale.getVariant();
+		if (!variant.isEmpty()) {
+			suffixes.add("_" + language + "_" + country + "_" + variant);
+		}
+		if (!country.isEmpty()) {
+			suffixes.add("_" + language + "_" + country);
+		}
+		if (!language.isEmpty()) {
+			suffixes.add("_" + language);
+		}
+		suffixes.add("");
+		return suffixes;
+	}
+
+	/**
+	 * @return messages of the bundle from the classpath, empty if there is no such bundle
+	 */
+	@NonNull
+	private Map<String, String> loadClasspath(@NonNull final String bundle) {
+		ClassLoader classLoader = getClass().getClassLoader();
+		var resource = classLoader.getResource(bundle + EXTENSION);
+		if (resource == null) {
+			return Map.of();
+		}
+		var properties = new Properties();
+		try (Reader reader = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		} catch (IOException e) {
+			log.error("[!] Failed to read the message bundle {}: {}", resource, e.toString());
+			return Map.of();
+		}
+		return toMap(properties);
+	}
+
+	@NonNull
+	private static Map<String, String> toMap(@NonNull final Properties properties) {
+		Map<String, String> result = new HashMap<>();
+		properties.forEach((key, value) -> result.put((String) key, (String) value));
+		return Map.copyOf(result);
+	}
+
+	/**
+	 * Immutable messages of the external bundles by their names, and the memoized messages per locale
+	 */
+	private static final class Snapshot {
+		private final Map<String, Map<String, String>> bundles;
+		private final Map<Locale, Map<String, String>> messages = new ConcurrentHashMap<>();
+
+		private Snapshot(final Map<String, Map<String, String>> bundles) {
+			this.bundles = bundles;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package io.github.cepr0.common.error;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class LoadShedderTest {
+
+	private static final String ROUTE = "GET /models/{id}";
+
+	private LoadShedder shedder;
+
+	@Before
+	public void setUp() {
+		var props = new ApiErrorProperties.Shedding();
+		props.setMinRequests(4);
+		props.setFailureRate(0.5);
+		props.setOpenDuration(Duration.ofMillis(50));
+		props.setProbes(2);
+		shedder = new LoadShedder(props);
+	}
+
+	@Test
+	public void opensOnFailureRateThenClosesAfterSuccessfulProbes() throws Exception {
+		failRequests(3);
+		assertEquals(LoadShedder.State.CLOSED, shedder.getState(ROUTE));
+		failRequests(1);
+		assertEquals(LoadShedder.State.OPEN, shedder.getState(ROUTE));
+		assertNull(shedder.acquire(ROUTE));
+
+		Thread.sleep(100);
+		LoadShedder.Permit first = shedder.acquire(ROUTE);
+		LoadShedder.Permit second = shedder.acquire(ROUTE);
+		assertEquals(LoadShedder.State.HALF_OPEN, shedder.getState(ROUTE));
+		assertNotNull(first);
+		assertNotNull(second);
+		assertNull(shedder.acquire(ROUTE));
+
+		first.complete(false);
+		assertEquals(LoadShedder.State.HALF_OPEN, shedder.getState(ROUTE));
+		second.complete(false);
+		assertEquals(LoadShedder.State.CLOSED, shedder.getState(ROUTE));
+		assertNotNull(shedder.acquire(ROUTE));
+	}
+
+	@Test
+	public void reopensOnFailedProbe() throws Exception {
+		failRequests(4);
+		Thread.sleep(100);
+		LoadShedder.Permit probe = shedder.acquire(ROUTE);
+		assertNotNull(probe);
+
+		probe.complete(true);
+		assertEquals(LoadShedder.State.OPEN, shedder.getState(ROUTE));
+		assertNull(shedder.acquire(ROUTE));
+	}
+
+	@Test
+	public void lateProbeOfPreviousPhaseIsIgnored() throws Exception {
+		failRequests(4);
+		Thread.sleep(100);
+		LoadShedder.Permit late = shedder.acquire(ROUTE);
+		shedder.acquire(ROUTE).complete(true);
+
+		Thread.sleep(100);
+		shedder.acquire(ROUTE).complete(false);
+		late.complete(false);
+		assertEquals(LoadShedder.State.HALF_OPEN, shedder.getState(ROUTE));
+	}
+
+	private void failRequests(final int requests) {
+		for (int i = 0; i < requests; i++) {
+			LoadShedder.Permit permit = shedder.acquire(ROUTE);
+			assertNotNull(permit);
+			permit.complete(true);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.cepr0.common.error;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecentErrorsTest {
+
+	private RecentErrors recentErrors;
+
+	@Before
+	public void setUp() {
+		var props = new ApiErrorProperties.Recent();
+		props.setCapacity(4);
+		recentErrors = new RecentErrors(props);
+	}
+
+	@After
+	public void tearDown() {
+		recentErrors.destroy();
+	}
+
+	@Test
+	public void oldestErrorsAreOverwritten() throws Exception {
+		for (int i = 0; i < 6; i++) {
+			recentErrors.record(new IllegalStateException(), HttpStatus.BAD_REQUEST, "code-" + i, "GET /models");
+			Thread.sleep(2);
+		}
+
+		var report = recentErrors.report(Duration.ofMinutes(1), 10, 10);
+		assertEquals(4, report.getTotal());
+		assertEquals(List.of("code-5", "code-4", "code-3", "code-2"), codes(report.getRecent()));
+	}
+
+	@Test
+	public void samplesAreTheMostRecentErrors() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			recentErrors.record(new IllegalStateException(), HttpStatus.BAD_REQUEST, "code-" + i, "GET /models");
+			Thread.sleep(2);
+		}
+
+		var report = recentErrors.report(Duration.ofMinutes(1), 10, 2);
+		assertEquals(3, report.getTotal());
+		assertEquals(List.of("code-2", "code-1"), codes(report.getRecent()));
+	}
+
+	private static List<String> codes(final List<RecentErrors.Entry> entries) {
+		return entries.stream().map(RecentErrors.Entry::getCode).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,110 @@
+package io.github.cepr0.common.message;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MessageNearCacheTest {
+
+	private static final Locale LOCALE = Locale.ENGLISH;
+
+	private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+	private MessageNearCache nearCache;
+
+	@Before
+	public void setUp() {
+		var props = new MessageStoreProperties();
+		props.setTtl(Duration.ofMinutes(1));
+		props.setMaxTenants(2);
+
+		MessageStore store = (tenant, locale, version) -> {
+			loads.computeIfAbsent(tenant, t -> new AtomicInteger()).incrementAndGet();
+			return tenant.startsWith("unknown")
+					? new MessageStore.Messages("0", Map.of())
+					: new MessageStore.Messages("1", Map.of("model.big-num", "Too big for " + tenant));
+		};
+		nearCache = new MessageNearCache(store, MessageTenantResolver.NONE, props);
+	}
+
+	@After
+	public void tearDown() {
+		nearCache.destroy();
+	}
+
+	@Test
+	public void idleTenantIsEvicted() throws Exception {
+		cache("acme");
+		cache("globex");
+		assertFalse(nearCache.getOverrides("acme", LOCALE).isEmpty());
+
+		cache("initech");
+		Map<String, Map<Locale, String>> versions = nearCache.getVersions();
+		assertEquals(2, versions.size());
+		assertTrue(versions.containsKey("acme"));
+		assertTrue(versions.containsKey("initech"));
+	}
+
+	@Test
+	public void unknownTenantIsNotCachedAndNotProbedAgain() throws Exception {
+		assertTrue(nearCache.getOverrides("unknown", LOCALE).isEmpty());
+		await(() -> loads("unknown") == 1);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(nearCache.getOverrides("unknown", LOCALE).isEmpty());
+		}
+		Thread.sleep(50);
+		assertEquals(1, loads("unknown"));
+		assertTrue(nearCache.getVersions().isEmpty());
+	}
+
+	@Test
+	public void unknownTenantsDoNotEvictKnownOnes() throws Exception {
+		cache("acme");
+		cache("globex");
+		for (int i = 0; i < 10; i++) {
+			String tenant = "unknown-" + i;
+			nearCache.getOverrides(tenant, LOCALE);
+			await(() -> loads(tenant) == 1);
+		}
+		Thread.sleep(50);
+
+		Map<String, Map<Locale, String>> versions = nearCache.getVersions();
+		assertEquals(2, versions.size());
+		assertTrue(versions.containsKey("acme"));
+		assertTrue(versions.containsKey("globex"));
+	}
+
+	/**
+	 * Makes the first lookup of the tenant and waits till its messages are loaded by the background thread
+	 */
+	private void cache(final String tenant) throws InterruptedException {
+		assertTrue(nearCache.getOverrides(tenant, LOCALE).isEmpty());
+		await(() -> nearCache.getVersions().containsKey(tenant));
+	}
+
+	private int loads(final String tenant) {
+		AtomicInteger count = loads.get(tenant);
+		return count != null ? count.get() : 0;
+	}
+
+	private static void await(final BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() - deadline > 0) {
+				throw new AssertionError("Condition is not met in 5s");
+			}
+			Thread.sleep(5);
+		}
+	}
+}